@@ -1,6 +1,7 @@
 plugins {
   id("java")
   id("io.freefair.lombok") version "9.5.0"
+  id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "io.poddeck"
@@ -17,13 +17,65 @@ hostname = ${CORE_HOSTNAME}
 port = ${CORE_PORT:-10101}
 cluster = ${CLUSTER_NAME:-default}
 key = ${CLUSTER_KEY}
+list_chunk_size = ${LIST_CHUNK_SIZE:-0}
+list_parallelism = ${LIST_PARALLELISM:-16}
+flush_window_millis = ${FLUSH_WINDOW_MILLIS:-5}
+flush_batch_size = ${FLUSH_BATCH_SIZE:-256}
+reconnect_initial_millis = ${RECONNECT_INITIAL_MILLIS:-500}
+reconnect_max_millis = ${RECONNECT_MAX_MILLIS:-30000}
+replay_capacity = ${REPLAY_CAPACITY:-64}
+replay_window_millis = ${REPLAY_WINDOW_MILLIS:-2000}
+compression = ${COMPRESSION:-identity}
+chunk_threshold_bytes = ${CHUNK_THRESHOLD_BYTES:-0}
+report_interval_seconds = ${REPORT_INTERVAL_SECONDS:-60}
 
 [telegraf]
 namespace = ${TELEGRAF_NAMESPACE:-monitoring}
 port = ${TELEGRAF_PORT:-9273}
+compression = ${TELEGRAF_COMPRESSION:-true}
 
 [metric]
 interval_seconds = ${METRIC_INTERVAL:-1}
+scrape_timeout_millis = ${METRIC_SCRAPE_TIMEOUT_MILLIS:-5000}
+report_deadline_millis = ${METRIC_REPORT_DEADLINE_MILLIS:-900}
+
+[outbound]
+reply_capacity = ${OUTBOUND_REPLY_CAPACITY:-1024}
+reply_policy = ${OUTBOUND_REPLY_POLICY:-block}
+metric_capacity = ${OUTBOUND_METRIC_CAPACITY:-16}
+metric_policy = ${OUTBOUND_METRIC_POLICY:-coalesce}
+event_capacity = ${OUTBOUND_EVENT_CAPACITY:-4096}
+event_policy = ${OUTBOUND_EVENT_POLICY:-drop_oldest}
+
+[dispatch]
+service_concurrency = ${DISPATCH_SERVICE_CONCURRENCY:-16}
+queue_capacity = ${DISPATCH_QUEUE_CAPACITY:-1024}
+request_timeout_seconds = ${DISPATCH_REQUEST_TIMEOUT_SECONDS:-300}
+
+[cache]
+resync_seconds = ${CACHE_RESYNC_SECONDS:-600}
+sync_timeout_seconds = ${CACHE_SYNC_TIMEOUT_SECONDS:-10}
+page_size = ${CACHE_PAGE_SIZE:-500}
+list_raw = ${CACHE_LIST_RAW:-false}
+yaml_cache_bytes = ${CACHE_YAML_CACHE_BYTES:-33554432}
+message_cache_bytes = ${CACHE_MESSAGE_CACHE_BYTES:-67108864}
+
+[log]
+follow_tail_lines = ${LOG_FOLLOW_TAIL_LINES:-1000}
+follow_max_streams = ${LOG_FOLLOW_MAX_STREAMS:-16}
+chunk_bytes = ${LOG_CHUNK_BYTES:-65536}
+idle_timeout_seconds = ${LOG_IDLE_TIMEOUT_SECONDS:-300}
+aggregate_max_streams = ${LOG_AGGREGATE_MAX_STREAMS:-64}
+merge_buffer_lines = ${LOG_MERGE_BUFFER_LINES:-1024}
+merge_lag_millis = ${LOG_MERGE_LAG_MILLIS:-500}
+cache_budget_bytes = ${LOG_CACHE_BUDGET_BYTES:-0}
+cache_ring_bytes = ${LOG_CACHE_RING_BYTES:-2097152}
+cache_ttl_seconds = ${LOG_CACHE_TTL_SECONDS:-600}
+cache_max_follow_streams = ${LOG_CACHE_MAX_FOLLOW_STREAMS:-8}
+export_directory = ${LOG_EXPORT_DIRECTORY:-}
+export_ttl_seconds = ${LOG_EXPORT_TTL_SECONDS:-900}
+export_max_bytes = ${LOG_EXPORT_MAX_BYTES:-1073741824}
+export_max_streams = ${LOG_EXPORT_MAX_STREAMS:-4}
 EOF
 
 exec java -jar agent.jar
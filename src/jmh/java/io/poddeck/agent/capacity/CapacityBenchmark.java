@@ -0,0 +1,61 @@
+package io.poddeck.agent.capacity;
+
+import io.kubernetes.client.custom.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the conversion of {@link Capacity} with the plain
+ * {@link BigDecimal} conversion it replaces, for quantities as
+ * they appear in pod requests and node capacities. Run with
+ * {@code ./gradlew jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapacityBenchmark {
+  @Param({"100m", "250m", "2", "1.5"})
+  private String cpu;
+  @Param({"128Mi", "1Gi", "8116924Ki", "500M"})
+  private String memory;
+  private Quantity cpuQuantity;
+  private Quantity memoryQuantity;
+  private Capacity capacity;
+
+  private static final BigDecimal THOUSAND = BigDecimal.valueOf(1000);
+
+  @Setup
+  public void setup() {
+    cpuQuantity = new Quantity(cpu);
+    memoryQuantity = new Quantity(memory);
+    capacity = Capacity.of(Map.of("cpu", cpuQuantity,
+      "memory", memoryQuantity));
+  }
+
+  @Benchmark
+  public long capacity() {
+    return capacity.cpu() + capacity.memory();
+  }
+
+  @Benchmark
+  public long bigDecimal() {
+    return cpuQuantity.getNumber().multiply(THOUSAND).longValue() +
+      memoryQuantity.getNumber().longValue();
+  }
+}
@@ -7,7 +7,9 @@ import io.poddeck.agent.application.ApplicationLaunchEvent;
 import io.poddeck.agent.application.ApplicationPostRunEvent;
 import io.poddeck.agent.application.ApplicationPreRunEvent;
 import io.poddeck.agent.audit.AuditHook;
+import io.poddeck.agent.cache.CacheHook;
 import io.poddeck.agent.communication.CommunicationClient;
+import io.poddeck.agent.communication.CommunicationReporter;
 import io.poddeck.agent.cronjob.CronJobHook;
 import io.poddeck.agent.daemonset.DaemonSetHook;
 import io.poddeck.agent.deployment.DeploymentHook;
@@ -46,6 +48,7 @@ public class AgentApplication {
       log.info("Successfully connected to core");
       injector.getInstance(MetricSchedule.class).start();
       log.info("Successfully started metric schedule");
+      injector.getInstance(CommunicationReporter.class).start();
       log.info("Successfully booted PodDeck - Agent");
       eventExecutor.execute(ApplicationPostRunEvent.create());
       client.awaitTermination();
@@ -56,6 +59,7 @@ public class AgentApplication {
 
   private static void registerHooks(Injector injector) {
     var hookRegistry = injector.getInstance(HookRegistry.class);
+    hookRegistry.register(injector.getInstance(CacheHook.class));
     hookRegistry.register(injector.getInstance(NodeHook.class));
     hookRegistry.register(injector.getInstance(ResourceHook.class));
     hookRegistry.register(injector.getInstance(NamespaceHook.class));
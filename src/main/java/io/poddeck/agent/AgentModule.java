@@ -9,8 +9,11 @@ import io.kubernetes.client.openapi.apis.AppsV1Api;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.util.Config;
 import io.poddeck.agent.audit.AuditModule;
+import io.poddeck.agent.cache.CacheModule;
 import io.poddeck.agent.communication.CommunicationModule;
+import io.poddeck.agent.communication.service.RequestContextInterceptor;
 import io.poddeck.agent.metric.MetricModule;
+import io.poddeck.agent.pod.PodModule;
 import io.poddeck.agent.telegraf.TelegrafModule;
 import io.poddeck.common.event.EventExecutor;
 import io.poddeck.common.event.HookRegistry;
@@ -29,6 +32,8 @@ public class AgentModule extends AbstractModule {
     install(TelegrafModule.create());
     install(MetricModule.create());
     install(AuditModule.create());
+    install(CacheModule.create());
+    install(PodModule.create());
   }
 
   @Provides
@@ -59,6 +64,9 @@ public class AgentModule extends AbstractModule {
   @Singleton
   ApiClient provideKubernetesApiClient() throws Exception {
     var client = Config.defaultClient();
+    // Calls made by services are cancelled together with their request
+    client.setHttpClient(client.getHttpClient().newBuilder()
+      .addInterceptor(RequestContextInterceptor.create()).build());
     Configuration.setDefaultApiClient(client);
     return client;
   }
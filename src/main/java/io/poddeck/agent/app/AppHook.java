@@ -6,8 +6,11 @@ import com.marcnuri.helm.Helm;
 import io.poddeck.agent.application.ApplicationLaunchEvent;
 import io.poddeck.agent.communication.service.ServiceRepository;
 import io.poddeck.common.AppInstallRequest;
+import io.poddeck.common.AppInstallResponse;
 import io.poddeck.common.AppListRequest;
+import io.poddeck.common.AppListResponse;
 import io.poddeck.common.AppUninstallRequest;
+import io.poddeck.common.AppUninstallResponse;
 import io.poddeck.common.event.EventHook;
 import io.poddeck.common.event.Hook;
 import io.poddeck.common.log.Log;
@@ -31,9 +34,12 @@ public final class AppHook implements Hook {
   private void applicationLaunch(ApplicationLaunchEvent event) {
     initializeHelmConfig();
     updateHelmRepositories();
-    serviceRepository.register(AppListRequest.class, appListService);
-    serviceRepository.register(AppInstallRequest.class, appInstallService);
-    serviceRepository.register(AppUninstallRequest.class, appUninstallService);
+    serviceRepository.register(AppListRequest.class, appListService,
+      AppListResponse.newBuilder().setSuccess(false).build());
+    serviceRepository.register(AppInstallRequest.class, appInstallService,
+      AppInstallResponse.newBuilder().setSuccess(false).build());
+    serviceRepository.register(AppUninstallRequest.class, appUninstallService,
+      AppUninstallResponse.newBuilder().setSuccess(false).build());
   }
 
   private static final String DEFAULT_REPOSITORY_CONFIG = """
@@ -4,8 +4,10 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.poddeck.agent.application.ApplicationLaunchEvent;
 import io.poddeck.agent.communication.service.ServiceRepository;
-import io.poddeck.common.AuditPerformRequest;
 import io.poddeck.common.AuditFindRequest;
+import io.poddeck.common.AuditFindResponse;
+import io.poddeck.common.AuditPerformRequest;
+import io.poddeck.common.AuditPerformResponse;
 import io.poddeck.common.event.EventHook;
 import io.poddeck.common.event.Hook;
 import lombok.AccessLevel;
@@ -20,7 +22,9 @@ public final class AuditHook implements Hook {
 
   @EventHook
   private void applicationLaunch(ApplicationLaunchEvent event) {
-    serviceRepository.register(AuditPerformRequest.class, auditPerformService);
-    serviceRepository.register(AuditFindRequest.class, auditFindService);
+    serviceRepository.register(AuditPerformRequest.class, auditPerformService,
+      AuditPerformResponse.newBuilder().setSuccess(false).build());
+    serviceRepository.register(AuditFindRequest.class, auditFindService,
+      AuditFindResponse.newBuilder().setSuccess(false).build());
   }
 }
\ No newline at end of file
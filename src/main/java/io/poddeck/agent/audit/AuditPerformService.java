@@ -7,6 +7,7 @@ import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.V1Job;
 import io.kubernetes.client.openapi.models.V1Pod;
 import io.poddeck.agent.communication.CommunicationClient;
+import io.poddeck.agent.communication.service.RequestContext;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.AuditPerformRequest;
 import io.poddeck.common.AuditPerformResponse;
@@ -45,7 +46,8 @@ public final class AuditPerformService implements Service<AuditPerformRequest> {
       client.send(requestId, AuditPerformResponse.newBuilder()
         .setSuccess(false).build());
     }
-    deleteJob(createdJob);
+    var job = createdJob;
+    RequestContext.detached(() -> deleteJob(job));
   }
 
   private static final long TIMEOUT = 60000L;
@@ -53,7 +55,11 @@ public final class AuditPerformService implements Service<AuditPerformRequest> {
   private void waitForJobCompletion(V1Job job) throws Exception {
     long start = System.currentTimeMillis();
     var metadata = job.getMetadata();
+    var context = RequestContext.current();
     while (System.currentTimeMillis() - start < TIMEOUT) {
+      if (context.isPresent() && context.get().isCancelled()) {
+        throw new InterruptedException("Audit was cancelled");
+      }
       var current = batchV1Api.readNamespacedJob(metadata.getName(),
         metadata.getNamespace()).execute();
       var status = current.getStatus();
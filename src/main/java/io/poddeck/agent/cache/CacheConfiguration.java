@@ -0,0 +1,29 @@
+package io.poddeck.agent.cache;
+
+import io.poddeck.common.configuration.Configuration;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import org.apache.commons.configuration2.AbstractConfiguration;
+
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public class CacheConfiguration implements Configuration {
+  private int resyncSeconds;
+  private int syncTimeoutSeconds;
+  private int pageSize;
+  private boolean listRaw;
+  private long yamlCacheBytes;
+  private long messageCacheBytes;
+
+  @Override
+  public void load(AbstractConfiguration file) {
+    resyncSeconds = file.getInt("cache.resync_seconds", 600);
+    syncTimeoutSeconds = file.getInt("cache.sync_timeout_seconds", 10);
+    pageSize = file.getInt("cache.page_size", 500);
+    listRaw = file.getBoolean("cache.list_raw", false);
+    yamlCacheBytes = file.getLong("cache.yaml_cache_bytes", 33554432);
+    messageCacheBytes = file.getLong("cache.message_cache_bytes", 67108864);
+  }
+}
@@ -0,0 +1,20 @@
+package io.poddeck.agent.cache;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.poddeck.agent.application.ApplicationLaunchEvent;
+import io.poddeck.common.event.EventHook;
+import io.poddeck.common.event.Hook;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+@Singleton
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
+public final class CacheHook implements Hook {
+  private final ResourceCache resourceCache;
+
+  @EventHook
+  private void applicationLaunch(ApplicationLaunchEvent event) {
+    resourceCache.start();
+  }
+}
@@ -0,0 +1,47 @@
+package io.poddeck.agent.cache;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.util.Config;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.configuration2.AbstractConfiguration;
+
+import java.time.Duration;
+
+@RequiredArgsConstructor(staticName = "create")
+public final class CacheModule extends AbstractModule {
+  @Provides
+  @Singleton
+  CacheConfiguration cacheConfiguration(AbstractConfiguration file) {
+    var configuration = CacheConfiguration.create();
+    configuration.load(file);
+    return configuration;
+  }
+
+  /**
+   * Informers keep their watches open for a long time without receiving
+   * anything, so they get a client of their own without a read timeout. The
+   * shared client keeps its read timeout for all other calls
+   */
+  @Provides
+  @Singleton
+  @Named("informer")
+  ApiClient informerApiClient() throws Exception {
+    var client = Config.defaultClient();
+    client.setHttpClient(client.getHttpClient().newBuilder()
+      .readTimeout(Duration.ZERO).build());
+    return client;
+  }
+
+  @Provides
+  @Singleton
+  SharedInformerFactory sharedInformerFactory(
+    @Named("informer") ApiClient client
+  ) {
+    return new SharedInformerFactory(client);
+  }
+}
@@ -0,0 +1,59 @@
+package io.poddeck.agent.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.protobuf.Message;
+import io.kubernetes.client.common.KubernetesObject;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the messages the factories assembled from resources. A resource only
+ * changes together with its resource version, so the message of a resource is
+ * kept until its uid or resource version changes. Parts of a message that
+ * change without the resource, like its age and its events, must not be
+ * cached and are added by the factories on every assembly. Since a message
+ * might carry the yaml of its resource, the cache is bounded by the
+ * serialized size of its messages
+ */
+@Singleton
+public final class MessageCache {
+  private final Cache<String, Message> messages;
+
+  @Inject
+  private MessageCache(CacheConfiguration configuration) {
+    this.messages = CacheBuilder.newBuilder()
+      .maximumWeight(configuration.messageCacheBytes())
+      .weigher((String key, Message message) ->
+        key.length() + message.getSerializedSize())
+      .build();
+  }
+
+  /**
+   * @param resource The resource
+   * @param raw Whether the message carries the yaml of the resource
+   * @param assembler Assembles the message if it is not cached
+   * @return The message of the resource
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Message> T find(
+    KubernetesObject resource, boolean raw, Supplier<T> assembler
+  ) {
+    var metadata = resource.getMetadata();
+    if (metadata == null || metadata.getUid() == null ||
+      metadata.getResourceVersion() == null
+    ) {
+      return assembler.get();
+    }
+    var key = resource.getClass().getSimpleName() + "/" + metadata.getUid() +
+      "@" + metadata.getResourceVersion() + (raw ? "/raw" : "");
+    var message = (T) messages.getIfPresent(key);
+    if (message == null) {
+      message = assembler.get();
+      messages.put(key, message);
+    }
+    return message;
+  }
+}
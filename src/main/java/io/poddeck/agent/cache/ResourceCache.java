@@ -0,0 +1,259 @@
+package io.poddeck.agent.cache;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.informer.cache.Caches;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.models.*;
+import io.kubernetes.client.util.generic.GenericKubernetesApi;
+import io.poddeck.common.log.Log;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps an in-memory copy of the cluster resources which is maintained by
+ * shared informers. Reads are only served from memory once the informer of the
+ * resource has synced, until then they are passed to the api server
+ */
+@Singleton
+public final class ResourceCache {
+  private final ApiClient apiClient;
+  private final SharedInformerFactory informerFactory;
+  private final CacheConfiguration configuration;
+  private final Log log;
+  private final Map<Class<?>, SharedIndexInformer<?>> informers =
+    Maps.newConcurrentMap();
+  private volatile boolean started = false;
+
+  private static final long SYNC_POLL_INTERVAL = 50L;
+
+  @Inject
+  private ResourceCache(
+    @Named("informer") ApiClient apiClient,
+    SharedInformerFactory informerFactory,
+    CacheConfiguration configuration, Log log
+  ) {
+    this.apiClient = apiClient;
+    this.informerFactory = informerFactory;
+    this.configuration = configuration;
+    this.log = log;
+    register(V1Pod.class, V1PodList.class, "", "v1", "pods");
+    register(V1Node.class, V1NodeList.class, "", "v1", "nodes");
+    register(V1Namespace.class, V1NamespaceList.class, "", "v1",
+      "namespaces");
+    register(V1Service.class, V1ServiceList.class, "", "v1", "services");
+    register(V1Endpoints.class, V1EndpointsList.class, "", "v1",
+      "endpoints");
+    register(V1Deployment.class, V1DeploymentList.class, "apps", "v1",
+      "deployments");
+    register(V1StatefulSet.class, V1StatefulSetList.class, "apps", "v1",
+      "statefulsets");
+    register(V1DaemonSet.class, V1DaemonSetList.class, "apps", "v1",
+      "daemonsets");
+    register(V1ReplicaSet.class, V1ReplicaSetList.class, "apps", "v1",
+      "replicasets");
+    register(V1CronJob.class, V1CronJobList.class, "batch", "v1",
+      "cronjobs");
+  }
+
+  private <T extends KubernetesObject, L extends KubernetesListObject> void register(
+    Class<T> type, Class<L> listType, String group, String version,
+    String plural
+  ) {
+    var api = new GenericKubernetesApi<>(type, listType, group, version,
+      plural, apiClient);
+    var informer = informerFactory.sharedIndexInformerFor(api, type,
+      TimeUnit.SECONDS.toMillis(configuration.resyncSeconds()));
+    informers.put(type, informer);
+  }
+
+  /**
+   * Starts all informers, reads are served from memory as soon as the
+   * informer of the resource has synced
+   */
+  public synchronized void start() {
+    if (started) {
+      return;
+    }
+    informerFactory.startAllRegisteredInformers();
+    started = true;
+    log.info("Started resource cache");
+  }
+
+  /**
+   * Registers a handler that is notified about every change of a resource
+   * @param type The class of the resource
+   * @param handler The handler
+   */
+  public <T extends KubernetesObject> void addEventHandler(
+    Class<T> type, ResourceEventHandler<T> handler
+  ) {
+    informer(type).addEventHandler(handler);
+  }
+
+  /**
+   * @param type The class of the resource
+   * @return Whether the informer of the resource has completed its initial list
+   */
+  public boolean isReady(Class<? extends KubernetesObject> type) {
+    return started && informer(type).hasSynced();
+  }
+
+  /**
+   * @param type The class of the resource
+   * @return The keys of all resources of the type in the store of its
+   * informer
+   */
+  List<String> keys(Class<? extends KubernetesObject> type) {
+    return informer(type).getIndexer().listKeys();
+  }
+
+  /**
+   * Lists all resources of a type page by page. Pages that are loaded from
+   * the api server are only loaded while the pages are iterated, so a single
+   * page is held at a time. A loading error is thrown by the iterator as an
+   * {@link IllegalStateException}
+   * @param type The class of the resource
+   * @param fallback Loads the resources page by page if the cache has not
+   *                 synced in time
+   * @return The pages of resources
+   */
+  public <T extends KubernetesObject, L extends KubernetesListObject>
+  Iterable<List<T>> listPages(Class<T> type, ResourcePageLoader<L> fallback) {
+    if (!awaitReady(type)) {
+      return () -> loadPages(fallback);
+    }
+    return Iterables.partition(informer(type).getIndexer().list(),
+      Math.max(1, configuration.pageSize()));
+  }
+
+  private <T extends KubernetesObject, L extends KubernetesListObject>
+  Iterator<List<T>> loadPages(ResourcePageLoader<L> loader) {
+    return new AbstractIterator<>() {
+      private String continueToken = null;
+      private boolean complete = false;
+
+      @Override
+      protected List<T> computeNext() {
+        if (complete) {
+          return endOfData();
+        }
+        try {
+          var page = loader.load(configuration.pageSize(), continueToken);
+          continueToken = page.getMetadata() != null ?
+            page.getMetadata().getContinue() : null;
+          complete = continueToken == null || continueToken.isEmpty();
+          return (List<T>) page.getItems();
+        } catch (Exception exception) {
+          throw new IllegalStateException(exception);
+        }
+      }
+    };
+  }
+
+  /**
+   * Lists all resources of a type inside a namespace
+   * @param type The class of the resource
+   * @param namespace The namespace
+   * @param fallback Loads the resources if the cache has not synced in time
+   * @return The resources
+   */
+  public <T extends KubernetesObject> List<T> list(
+    Class<T> type, String namespace, ResourceLoader<List<T>> fallback
+  ) throws Exception {
+    if (!awaitReady(type)) {
+      return fallback.load();
+    }
+    return informer(type).getIndexer().byIndex(Caches.NAMESPACE_INDEX,
+      namespace);
+  }
+
+  /**
+   * Finds a single resource. Resources that are missing in the cache are
+   * loaded by the fallback, since they might have been created just now
+   * @param type The class of the resource
+   * @param namespace The namespace, empty for cluster scoped resources
+   * @param name The name of the resource
+   * @param fallback Loads the resource if the cache is not able to provide it
+   * @return The resource
+   */
+  public <T extends KubernetesObject> T find(
+    Class<T> type, String namespace, String name, ResourceLoader<T> fallback
+  ) throws Exception {
+    if (!awaitReady(type)) {
+      return fallback.load();
+    }
+    var key = namespace.isEmpty() ? name : namespace + "/" + name;
+    var resource = informer(type).getIndexer().getByKey(key);
+    if (resource == null) {
+      return fallback.load();
+    }
+    return resource;
+  }
+
+  /**
+   * Finds a single resource which might not exist. Unlike
+   * {@link #find(Class, String, String, ResourceLoader)} a resource that is
+   * missing in a synced cache is reported as missing without asking the api
+   * server
+   * @param type The class of the resource
+   * @param namespace The namespace, empty for cluster scoped resources
+   * @param name The name of the resource
+   * @param fallback Loads the resource if the cache has not synced in time
+   * @return The resource, empty if it does not exist
+   */
+  public <T extends KubernetesObject> Optional<T> findIfPresent(
+    Class<T> type, String namespace, String name, ResourceLoader<T> fallback
+  ) throws Exception {
+    if (!awaitReady(type)) {
+      return Optional.ofNullable(fallback.load());
+    }
+    var key = namespace.isEmpty() ? name : namespace + "/" + name;
+    return Optional.ofNullable(informer(type).getIndexer().getByKey(key));
+  }
+
+  private boolean awaitReady(Class<? extends KubernetesObject> type) {
+    if (!started) {
+      return false;
+    }
+    var informer = informer(type);
+    var deadline = System.currentTimeMillis() +
+      TimeUnit.SECONDS.toMillis(configuration.syncTimeoutSeconds());
+    try {
+      while (!informer.hasSynced()) {
+        if (System.currentTimeMillis() >= deadline) {
+          return false;
+        }
+        Thread.sleep(SYNC_POLL_INTERVAL);
+      }
+      return true;
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private <T extends KubernetesObject> SharedIndexInformer<T> informer(
+    Class<T> type
+  ) {
+    var informer = informers.get(type);
+    if (informer == null) {
+      throw new IllegalArgumentException("No informer registered for " +
+        type.getSimpleName());
+    }
+    return (SharedIndexInformer<T>) informer;
+  }
+}
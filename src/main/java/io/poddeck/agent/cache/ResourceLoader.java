@@ -0,0 +1,10 @@
+package io.poddeck.agent.cache;
+
+/**
+ * Loads resources directly from the api server, used whenever the
+ * {@link ResourceCache} is not able to answer a read
+ */
+@FunctionalInterface
+public interface ResourceLoader<T> {
+  T load() throws Exception;
+}
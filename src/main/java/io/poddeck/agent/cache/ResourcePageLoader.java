@@ -0,0 +1,17 @@
+package io.poddeck.agent.cache;
+
+import io.kubernetes.client.common.KubernetesListObject;
+
+/**
+ * Loads a single page of resources from the api server
+ */
+@FunctionalInterface
+public interface ResourcePageLoader<L extends KubernetesListObject> {
+  /**
+   * @param limit The maximum amount of resources of the page
+   * @param continueToken The token returned with the previous page, null for
+   *                      the first page
+   * @return The page
+   */
+  L load(int limit, String continueToken) throws Exception;
+}
@@ -0,0 +1,67 @@
+package io.poddeck.agent.cache;
+
+import com.google.common.collect.Sets;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.cache.Caches;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Tracks whether a handler of resource changes has processed the initial
+ * list of its informer. An informer is synced once its store holds the
+ * initial list, its handlers are notified about the list afterwards. So a
+ * handler is only ready once it has processed every resource of the store,
+ * until then the resources it has processed are remembered
+ */
+@RequiredArgsConstructor(staticName = "create")
+public final class ResourceSyncTracker<T extends KubernetesObject> {
+  private final ResourceCache resourceCache;
+  private final Class<T> type;
+  private Set<String> processed = Sets.newHashSet();
+  private volatile boolean ready = false;
+
+  /**
+   * Called by the handler for every resource it has added or updated
+   * @param resource The resource
+   */
+  public synchronized void processed(T resource) {
+    if (processed != null) {
+      processed.add(Caches.metaNamespaceKeyFunc(resource));
+    }
+  }
+
+  /**
+   * Called by the handler for every resource it has deleted
+   * @param resource The resource
+   */
+  public synchronized void deleted(T resource) {
+    if (processed != null) {
+      processed.remove(Caches.metaNamespaceKeyFunc(resource));
+    }
+  }
+
+  /**
+   * @return Whether the handler has processed all resources of the store
+   */
+  public boolean isReady() {
+    if (ready) {
+      return true;
+    }
+    if (!resourceCache.isReady(type)) {
+      return false;
+    }
+    var keys = resourceCache.keys(type);
+    synchronized (this) {
+      if (ready) {
+        return true;
+      }
+      if (!processed.containsAll(keys)) {
+        return false;
+      }
+      processed = null;
+      ready = true;
+      return true;
+    }
+  }
+}
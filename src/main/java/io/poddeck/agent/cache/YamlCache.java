@@ -0,0 +1,56 @@
+package io.poddeck.agent.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.util.Yaml;
+
+/**
+ * Serializes resources to yaml. Dumping is expensive, so the yaml of every
+ * resource is kept until the resource changes, which is detected by its uid
+ * and resource version. The cache is bounded by the length of the dumps,
+ * which approximates their size in bytes
+ */
+@Singleton
+public final class YamlCache {
+  private final CacheConfiguration configuration;
+  private final Cache<String, String> dumps;
+
+  @Inject
+  private YamlCache(CacheConfiguration configuration) {
+    this.configuration = configuration;
+    this.dumps = CacheBuilder.newBuilder()
+      .maximumWeight(configuration.yamlCacheBytes())
+      .weigher((String key, String yaml) -> key.length() + yaml.length())
+      .build();
+  }
+
+  /**
+   * @param resource The resource
+   * @return The yaml of the resource
+   */
+  public String dump(KubernetesObject resource) {
+    var metadata = resource.getMetadata();
+    if (metadata == null || metadata.getUid() == null ||
+      metadata.getResourceVersion() == null
+    ) {
+      return Yaml.dump(resource);
+    }
+    var key = metadata.getUid() + "@" + metadata.getResourceVersion();
+    var yaml = dumps.getIfPresent(key);
+    if (yaml == null) {
+      yaml = Yaml.dump(resource);
+      dumps.put(key, yaml);
+    }
+    return yaml;
+  }
+
+  /**
+   * @return Whether the items of list responses carry their yaml
+   */
+  public boolean includeInLists() {
+    return configuration.listRaw();
+  }
+}
@@ -6,16 +6,29 @@ import lombok.RequiredArgsConstructor;
 import java.math.BigDecimal;
 import java.util.Map;
 
+/**
+ * The cpu in millicores and the memory in bytes of a resource list. Most
+ * quantities of a cluster are integral amounts of millicores or bytes, which
+ * are converted with long arithmetic instead of {@link BigDecimal}, see the
+ * CapacityBenchmark of the jmh source set
+ */
 @RequiredArgsConstructor(staticName = "of")
 public final class Capacity {
   private final Map<String, Quantity> capacity;
 
+  private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L,
+    10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+    1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+    10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+    10_000_000_000_000_000L, 100_000_000_000_000_000L};
+  private static final int MAX_DIGITS = 18;
+
   public long cpu() {
     var cpu = capacity.get("cpu");
     if (cpu == null) {
       return 0;
     }
-    return cpu.getNumber().multiply(BigDecimal.valueOf(1000)).longValue();
+    return convert(cpu.getNumber(), 3);
   }
 
   public long memory() {
@@ -23,6 +36,18 @@ public final class Capacity {
     if (memory == null) {
       return 0;
     }
-    return memory.getNumber().longValue();
+    return convert(memory.getNumber(), 0);
+  }
+
+  /**
+   * @return The number multiplied by ten to the power of the shift, with the
+   * fraction truncated
+   */
+  private static long convert(BigDecimal number, int shift) {
+    var exponent = shift - number.scale();
+    if (exponent >= 0 && number.precision() + exponent <= MAX_DIGITS) {
+      return number.unscaledValue().longValue() * POWERS_OF_TEN[exponent];
+    }
+    return number.scaleByPowerOfTen(shift).longValue();
   }
 }
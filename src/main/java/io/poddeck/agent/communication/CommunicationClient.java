@@ -1,23 +1,24 @@
 package io.poddeck.agent.communication;
 
+import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import com.google.protobuf.Any;
 import com.google.protobuf.Message;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
-import io.grpc.stub.StreamObserver;
 import io.poddeck.agent.communication.service.ServiceRepository;
 import io.poddeck.common.HandshakeRequest;
-import io.poddeck.common.TunnelMessage;
 import io.poddeck.common.TunnelServiceGrpc;
 import io.poddeck.common.log.Log;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 
-import java.util.concurrent.Executor;
+import java.util.List;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Singleton
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
@@ -25,11 +26,17 @@ public final class CommunicationClient {
   private final Log log;
   private final CommunicationConfiguration configuration;
   private final ServiceRepository serviceRepository;
-  private final Executor executor = Executors.newSingleThreadExecutor();
+  private final OutboundQueue outboundQueue;
+  private final ListAssembler listAssembler;
+  private final ScheduledExecutorService reconnectExecutor =
+    Executors.newSingleThreadScheduledExecutor();
   private ManagedChannel channel;
-  private StreamObserver<TunnelMessage> stream;
+  private TunnelServiceGrpc.TunnelServiceStub stub;
+  private TunnelService tunnel;
+  private int reconnectAttempts = 0;
 
   private static final int RETRY_ATTEMPTS = 10;
+  private static final int MAX_BACKOFF_EXPONENT = 16;
 
   public void connect() {
     try {
@@ -40,18 +47,73 @@ public final class CommunicationClient {
         .maxRetryAttempts(RETRY_ATTEMPTS)
         .maxInboundMessageSize(16 * 1024 * 1024)
         .build();
-      var stub = TunnelServiceGrpc.newStub(channel);
-      stream = stub.connect(TunnelService.create(log, this, serviceRepository));
-      var handshake = HandshakeRequest.newBuilder()
+      stub = TunnelServiceGrpc.newStub(channel);
+      if (!configuration.compression().equalsIgnoreCase("identity")) {
+        stub = stub.withCompression(configuration.compression());
+      }
+      outboundQueue.handshake(HandshakeRequest.newBuilder()
         .setCluster(configuration.cluster())
         .setKey(configuration.key())
-        .build();
-      send(handshake);
+        .build());
+      openTunnel();
+      outboundQueue.start();
+    } catch (Exception exception) {
+      log.processError(exception);
+    }
+  }
+
+  private synchronized void openTunnel() {
+    tunnel = TunnelService.create(log, this, serviceRepository,
+      outboundQueue);
+    stub.connect(tunnel);
+  }
+
+  /**
+   * Called for every message that arrives through a tunnel. A message proves
+   * that the handshake was accepted, so the reconnect backoff is reset
+   * @param tunnel The tunnel
+   */
+  synchronized void tunnelEstablished(TunnelService tunnel) {
+    if (tunnel == this.tunnel) {
+      reconnectAttempts = 0;
+    }
+  }
+
+  /**
+   * Called when a tunnel was closed. The requests of the core are cancelled,
+   * since the core no longer waits for them. The channel is kept and a new
+   * tunnel is opened after a jittered exponential backoff, the caches and
+   * watches of the agent are not affected
+   * @param tunnel The tunnel
+   */
+  synchronized void tunnelLost(TunnelService tunnel) {
+    if (tunnel != this.tunnel || channel.isShutdown()) {
+      return;
+    }
+    this.tunnel = null;
+    outboundQueue.detach();
+    outboundQueue.discard(serviceRepository.cancelAll());
+    var delay = reconnectDelay(reconnectAttempts++);
+    log.warning("Connection lost, reconnecting in " + delay + "ms");
+    reconnectExecutor.schedule(this::reconnect, delay, TimeUnit.MILLISECONDS);
+  }
+
+  private void reconnect() {
+    try {
+      log.info("Reconnecting to core...");
+      openTunnel();
     } catch (Exception exception) {
       log.processError(exception);
     }
   }
 
+  private long reconnectDelay(int attempt) {
+    var delay = Math.min(configuration.reconnectMaxMillis(),
+      (long) configuration.reconnectInitialMillis() <<
+        Math.min(attempt, MAX_BACKOFF_EXPONENT));
+    return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+  }
+
   public void awaitTermination() {
     try {
       channel.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
@@ -65,16 +127,51 @@ public final class CommunicationClient {
   }
 
   public void send(String requestId, Message message) {
-    var tunnelMessage = TunnelMessage.newBuilder()
-      .setPayload(Any.pack(message));
-    if (!requestId.isEmpty()) {
-      tunnelMessage.setRequestId(requestId);
-    }
-    send(tunnelMessage.build());
+    outboundQueue.enqueue(requestId, message);
+  }
+
+  /**
+   * @return The counters of the outbound queue
+   */
+  public OutboundMetrics outboundMetrics() {
+    return outboundQueue.metrics();
   }
 
-  private void send(TunnelMessage message) {
-    executor.execute(() -> stream.onNext(message));
+  /**
+   * Assembles and sends the items of a list response. Without list chunking
+   * the whole list is sent as a single response. With list chunking the items
+   * are assembled and sent page by page in chunks that all carry the id of
+   * the request, so neither the resources nor the response have to hold the
+   * whole list. The protocol has no field that marks the last chunk, so the
+   * list ends with an empty chunk, like a streamed log. The items are
+   * assembled in parallel, see {@link ListAssembler}. An item that fails to
+   * assemble is left out, a cancelled request ends without the end of its
+   * list
+   * @param requestId The id of the request
+   * @param pages The pages of items of the list
+   * @param assembler Converts an item into its message
+   * @param response Creates a response out of a chunk of messages
+   */
+  public <T, R> void sendList(
+    String requestId, Iterable<List<T>> pages, Function<T, R> assembler,
+    Function<List<R>, Message> response
+  ) throws InterruptedException {
+    var chunkSize = configuration.listChunkSize();
+    if (chunkSize <= 0) {
+      var items = Lists.<R>newArrayList();
+      for (var page : pages) {
+        items.addAll(listAssembler.assemble(page, assembler));
+      }
+      send(requestId, response.apply(items));
+      return;
+    }
+    for (var page : pages) {
+      for (var chunk : Lists.partition(page, chunkSize)) {
+        send(requestId, response.apply(listAssembler.assemble(chunk,
+          assembler)));
+      }
+    }
+    send(requestId, response.apply(List.of()));
   }
 
   public void shutdown() throws Exception {
@@ -14,6 +14,17 @@ public class CommunicationConfiguration implements Configuration {
   private int port;
   private String cluster;
   private String key;
+  private int listChunkSize;
+  private int listParallelism;
+  private int flushWindowMillis;
+  private int flushBatchSize;
+  private int reconnectInitialMillis;
+  private int reconnectMaxMillis;
+  private int replayCapacity;
+  private int replayWindowMillis;
+  private String compression;
+  private int chunkThresholdBytes;
+  private int reportIntervalSeconds;
 
   @Override
   public void load(AbstractConfiguration file) {
@@ -21,5 +32,21 @@ public class CommunicationConfiguration implements Configuration {
     port = file.getInt("communication.port");
     cluster = file.getString("communication.cluster");
     key = file.getString("communication.key");
+    listChunkSize = file.getInt("communication.list_chunk_size", 0);
+    listParallelism = file.getInt("communication.list_parallelism", 16);
+    flushWindowMillis = file.getInt("communication.flush_window_millis", 5);
+    flushBatchSize = file.getInt("communication.flush_batch_size", 256);
+    reconnectInitialMillis =
+      file.getInt("communication.reconnect_initial_millis", 500);
+    reconnectMaxMillis =
+      file.getInt("communication.reconnect_max_millis", 30000);
+    replayCapacity = file.getInt("communication.replay_capacity", 64);
+    replayWindowMillis =
+      file.getInt("communication.replay_window_millis", 2000);
+    compression = file.getString("communication.compression", "identity");
+    chunkThresholdBytes =
+      file.getInt("communication.chunk_threshold_bytes", 0);
+    reportIntervalSeconds =
+      file.getInt("communication.report_interval_seconds", 60);
   }
 }
@@ -3,6 +3,7 @@ package io.poddeck.agent.communication;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
+import io.poddeck.agent.communication.service.DispatchConfiguration;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.configuration2.AbstractConfiguration;
 
@@ -15,4 +16,20 @@ public final class CommunicationModule extends AbstractModule {
     configuration.load(file);
     return configuration;
   }
+
+  @Provides
+  @Singleton
+  OutboundConfiguration outboundConfiguration(AbstractConfiguration file) {
+    var configuration = OutboundConfiguration.create();
+    configuration.load(file);
+    return configuration;
+  }
+
+  @Provides
+  @Singleton
+  DispatchConfiguration dispatchConfiguration(AbstractConfiguration file) {
+    var configuration = DispatchConfiguration.create();
+    configuration.load(file);
+    return configuration;
+  }
 }
@@ -0,0 +1,70 @@
+package io.poddeck.agent.communication;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.poddeck.agent.communication.service.ServiceDispatcher;
+import io.poddeck.common.log.Log;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs the counters of the {@link ServiceDispatcher} and the
+ * {@link OutboundQueue} in a fixed interval, so queued requests, slow
+ * services and a backed up tunnel show up in the log of the agent
+ */
+@Singleton
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
+public final class CommunicationReporter {
+  private final Log log;
+  private final CommunicationConfiguration configuration;
+  private final ServiceDispatcher serviceDispatcher;
+  private final CommunicationClient communicationClient;
+  private final ScheduledExecutorService executorService =
+    Executors.newSingleThreadScheduledExecutor();
+
+  public void start() {
+    var interval = configuration.reportIntervalSeconds();
+    if (interval <= 0) {
+      return;
+    }
+    executorService.scheduleAtFixedRate(this::report, interval, interval,
+      TimeUnit.SECONDS);
+  }
+
+  private void report() {
+    try {
+      var dispatch = serviceDispatcher.metrics();
+      log.info(String.format(Locale.ROOT, "Dispatch: %d queued, %d running, " +
+          "%d completed, %d rejected, %d cancelled, queue %.1fms avg, " +
+          "service %.1fms avg %.1fms max", dispatch.queueDepth(),
+        dispatch.running(), dispatch.completed(), dispatch.rejected(),
+        dispatch.cancelled(), dispatch.averageQueueMillis(),
+        dispatch.averageServiceMillis(), dispatch.maxServiceMillis()));
+      var outbound = communicationClient.outboundMetrics();
+      log.info(String.format(Locale.ROOT, "Outbound: %d queued (%d reply, " +
+          "%d metric, %d event), %d written, %d flushes, %d coalesced, " +
+          "%d replayed, %d dropped, flush %.1fms avg %.1fms max",
+        outbound.queueDepth(), outbound.queueDepth(OutboundClass.REPLY),
+        outbound.queueDepth(OutboundClass.METRIC),
+        outbound.queueDepth(OutboundClass.EVENT), outbound.written(),
+        outbound.flushes(), outbound.coalesced(), outbound.replayed(),
+        dropped(outbound), outbound.averageFlushMillis(),
+        outbound.maxFlushMillis()));
+    } catch (Exception exception) {
+      log.processError(exception);
+    }
+  }
+
+  private long dropped(OutboundMetrics outbound) {
+    var dropped = 0L;
+    for (var outboundClass : OutboundClass.values()) {
+      dropped += outbound.dropped(outboundClass);
+    }
+    return dropped;
+  }
+}
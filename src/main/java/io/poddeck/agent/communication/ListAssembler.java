@@ -0,0 +1,133 @@
+package io.poddeck.agent.communication;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.poddeck.agent.communication.service.RequestContext;
+import io.poddeck.common.log.Log;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Assembles the items of list responses in parallel, since assembling an item
+ * may wait for the api server. Every item is assembled on its own virtual
+ * thread, the list parallelism caps how many items are assembled at once
+ * across all requests. The order of the items is kept. A failing item is
+ * isolated from the others: it is left out of the list and its failure is
+ * logged, the rest of the list is still sent. Only a cancelled request fails
+ * the whole list
+ */
+@Singleton
+final class ListAssembler {
+  private final Log log;
+  private final int parallelism;
+  private final Semaphore permits;
+  private final ExecutorService executor =
+    Executors.newVirtualThreadPerTaskExecutor();
+
+  @Inject
+  private ListAssembler(Log log, CommunicationConfiguration configuration) {
+    this.log = log;
+    this.parallelism = configuration.listParallelism();
+    this.permits = new Semaphore(Math.max(1, parallelism));
+  }
+
+  /**
+   * @param items The items
+   * @param assembler Converts an item into its message
+   * @return The messages of all items that could be assembled, in the order
+   * of the items
+   * @throws CancellationException If the request was cancelled
+   */
+  <T, R> List<R> assemble(
+    List<T> items, Function<T, R> assembler
+  ) throws InterruptedException {
+    var context = RequestContext.current();
+    var result = Lists.<R>newArrayListWithCapacity(items.size());
+    if (parallelism <= 1 || items.size() <= 1) {
+      for (var item : items) {
+        assembleItem(context, item, assembler).ifPresent(result::add);
+      }
+      return complete(context, items, result);
+    }
+    var futures = Lists.<Future<Optional<R>>>newArrayListWithCapacity(
+      items.size());
+    try {
+      for (var item : items) {
+        futures.add(executor.submit(() ->
+          assembleParallel(context, item, assembler)));
+      }
+      for (var future : futures) {
+        future.get().ifPresent(result::add);
+      }
+      return complete(context, items, result);
+    } catch (ExecutionException exception) {
+      throw new IllegalStateException(exception.getCause());
+    } finally {
+      for (var future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private <T, R> Optional<R> assembleParallel(
+    Optional<RequestContext> context, T item, Function<T, R> assembler
+  ) throws InterruptedException {
+    permits.acquire();
+    try {
+      if (context.isPresent()) {
+        if (context.get().isCancelled()) {
+          return Optional.empty();
+        }
+        return context.get().supply(() ->
+          assembleItem(context, item, assembler));
+      }
+      return assembleItem(context, item, assembler);
+    } finally {
+      permits.release();
+    }
+  }
+
+  private <T, R> Optional<R> assembleItem(
+    Optional<RequestContext> context, T item, Function<T, R> assembler
+  ) {
+    try {
+      var result = assembler.apply(item);
+      if (result == null) {
+        log.warning("Left out a list item that assembled to null");
+      }
+      return Optional.ofNullable(result);
+    } catch (Exception exception) {
+      if (!context.map(RequestContext::isCancelled).orElse(false)) {
+        log.processError(exception);
+      }
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @return The assembled items, unless the request was cancelled while they
+   * were assembled, in which case items may be missing for that reason alone
+   */
+  private <T, R> List<R> complete(
+    Optional<RequestContext> context, List<T> items, List<R> result
+  ) {
+    if (context.map(RequestContext::isCancelled).orElse(false)) {
+      throw new CancellationException("Request " +
+        context.get().requestId() + " was cancelled");
+    }
+    if (result.size() < items.size()) {
+      log.warning("Left out " + (items.size() - result.size()) + " of " +
+        items.size() + " list items that failed to assemble");
+    }
+    return result;
+  }
+}
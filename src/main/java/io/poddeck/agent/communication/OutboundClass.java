@@ -0,0 +1,35 @@
+package io.poddeck.agent.communication;
+
+import com.google.protobuf.Message;
+import io.poddeck.common.MetricReport;
+
+/**
+ * The priority classes of outgoing messages, ordered from the highest to the
+ * lowest priority
+ */
+public enum OutboundClass {
+  /**
+   * Replies to requests of the core
+   */
+  REPLY,
+  METRIC,
+  /**
+   * Events and all other unsolicited messages
+   */
+  EVENT;
+
+  /**
+   * @param requestId The id of the request, empty if the message is no reply
+   * @param message The message
+   * @return The class of the message
+   */
+  static OutboundClass of(String requestId, Message message) {
+    if (!requestId.isEmpty()) {
+      return REPLY;
+    }
+    if (message instanceof MetricReport) {
+      return METRIC;
+    }
+    return EVENT;
+  }
+}
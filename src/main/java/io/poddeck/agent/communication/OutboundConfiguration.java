@@ -0,0 +1,51 @@
+package io.poddeck.agent.communication;
+
+import io.poddeck.common.configuration.Configuration;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.configuration2.AbstractConfiguration;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+@RequiredArgsConstructor(staticName = "create")
+public class OutboundConfiguration implements Configuration {
+  private final Map<OutboundClass, Integer> capacities =
+    new EnumMap<>(OutboundClass.class);
+  private final Map<OutboundClass, OutboundPolicy> policies =
+    new EnumMap<>(OutboundClass.class);
+
+  @Override
+  public void load(AbstractConfiguration file) {
+    load(file, OutboundClass.REPLY, 1024, OutboundPolicy.BLOCK);
+    load(file, OutboundClass.METRIC, 16, OutboundPolicy.COALESCE);
+    load(file, OutboundClass.EVENT, 4096, OutboundPolicy.DROP_OLDEST);
+  }
+
+  private void load(
+    AbstractConfiguration file, OutboundClass outboundClass,
+    int defaultCapacity, OutboundPolicy defaultPolicy
+  ) {
+    var prefix = "outbound." + outboundClass.name().toLowerCase(Locale.ROOT);
+    capacities.put(outboundClass, Math.max(1,
+      file.getInt(prefix + "_capacity", defaultCapacity)));
+    policies.put(outboundClass, OutboundPolicy.valueOf(file.getString(
+      prefix + "_policy", defaultPolicy.name()).toUpperCase(Locale.ROOT)));
+  }
+
+  /**
+   * @param outboundClass The priority class
+   * @return The amount of messages the class may buffer
+   */
+  public int capacity(OutboundClass outboundClass) {
+    return capacities.get(outboundClass);
+  }
+
+  /**
+   * @param outboundClass The priority class
+   * @return What happens when the buffer of the class is full
+   */
+  public OutboundPolicy policy(OutboundClass outboundClass) {
+    return policies.get(outboundClass);
+  }
+}
@@ -0,0 +1,126 @@
+package io.poddeck.agent.communication;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the state of the {@link OutboundQueue}
+ */
+public final class OutboundMetrics {
+  private final Map<OutboundClass, AtomicInteger> queued =
+    new EnumMap<>(OutboundClass.class);
+  private final Map<OutboundClass, LongAdder> dropped =
+    new EnumMap<>(OutboundClass.class);
+  private final LongAdder written = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder replayed = new LongAdder();
+  private final LongAdder flushes = new LongAdder();
+  private final LongAdder totalFlushNanos = new LongAdder();
+  private final LongAccumulator maxFlushNanos =
+    new LongAccumulator(Math::max, 0);
+
+  private OutboundMetrics() {
+    for (var outboundClass : OutboundClass.values()) {
+      queued.put(outboundClass, new AtomicInteger());
+      dropped.put(outboundClass, new LongAdder());
+    }
+  }
+
+  static OutboundMetrics create() {
+    return new OutboundMetrics();
+  }
+
+  void enqueue(OutboundClass outboundClass) {
+    queued.get(outboundClass).incrementAndGet();
+  }
+
+  void dequeue(OutboundClass outboundClass) {
+    queued.get(outboundClass).decrementAndGet();
+  }
+
+  void drop(OutboundClass outboundClass) {
+    dropped.get(outboundClass).increment();
+  }
+
+  void write(long latencyNanos) {
+    written.increment();
+    totalFlushNanos.add(latencyNanos);
+    maxFlushNanos.accumulate(latencyNanos);
+  }
+
+  void coalesce(int count) {
+    coalesced.add(count);
+  }
+
+  void replay(int count) {
+    replayed.add(count);
+  }
+
+  void flush() {
+    flushes.increment();
+  }
+
+  /**
+   * @return The amount of messages waiting to be written to the tunnel
+   */
+  public int queueDepth() {
+    return queued.values().stream().mapToInt(AtomicInteger::get).sum();
+  }
+
+  /**
+   * @param outboundClass The priority class
+   * @return The amount of messages of the class waiting to be written
+   */
+  public int queueDepth(OutboundClass outboundClass) {
+    return queued.get(outboundClass).get();
+  }
+
+  /**
+   * @param outboundClass The priority class
+   * @return The amount of messages of the class that were dropped because
+   * its buffer was full
+   */
+  public long dropped(OutboundClass outboundClass) {
+    return dropped.get(outboundClass).sum();
+  }
+
+  public long written() {
+    return written.sum();
+  }
+
+  /**
+   * @return The amount of messages that were merged into another message
+   */
+  public long coalesced() {
+    return coalesced.sum();
+  }
+
+  /**
+   * @return The amount of messages that were written again after a reconnect
+   */
+  public long replayed() {
+    return replayed.sum();
+  }
+
+  public long flushes() {
+    return flushes.sum();
+  }
+
+  /**
+   * @return The average time between queueing and writing a message in millis
+   */
+  public double averageFlushMillis() {
+    var count = written.sum();
+    if (count == 0) {
+      return 0;
+    }
+    return totalFlushNanos.sum() / 1_000_000D / count;
+  }
+
+  public double maxFlushMillis() {
+    return maxFlushNanos.get() / 1_000_000D;
+  }
+}
@@ -0,0 +1,24 @@
+package io.poddeck.agent.communication;
+
+/**
+ * Decides what happens to a message whose class buffer is full
+ */
+public enum OutboundPolicy {
+  /**
+   * The sender waits until the buffer has space again
+   */
+  BLOCK,
+  /**
+   * The oldest buffered message is dropped to make room
+   */
+  DROP_OLDEST,
+  /**
+   * The new message is dropped
+   */
+  DROP_NEWEST,
+  /**
+   * Metric reports are merged into the newest buffered report, other
+   * messages are treated like {@link #DROP_OLDEST}
+   */
+  COALESCE
+}
@@ -0,0 +1,503 @@
+package io.poddeck.agent.communication;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.protobuf.Any;
+import com.google.protobuf.Message;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.poddeck.common.Metric;
+import io.poddeck.common.MetricReport;
+import io.poddeck.common.TunnelMessage;
+import io.poddeck.common.log.Log;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers outgoing messages and writes them to the tunnel from a single
+ * thread, but only while the stream is ready to accept them, so a slow core
+ * applies backpressure instead of growing the buffers of the channel.
+ * Every {@link OutboundClass} has its own bounded buffer and the writer always
+ * takes from the buffer with the highest priority, so replies never wait
+ * behind telemetry. When a buffer is full, its {@link OutboundPolicy} decides
+ * which message is dropped or merged. Telemetry that arrives within the flush
+ * window is written together, metric reports that wait in the queue at the
+ * same time are merged into one report.
+ * While the tunnel is down, messages stay in their buffers. Every new stream
+ * first receives the handshake and then the replies that were written shortly
+ * before the previous stream was lost, since they might not have reached the
+ * core. The core ignores a reply to a request it already has an answer for,
+ * so only replies are replayed, events and metric reports would arrive twice.
+ * Replies of requests that were cancelled together with the lost stream are
+ * neither replayed nor sent later
+ */
+@Singleton
+@Accessors(fluent = true)
+public final class OutboundQueue {
+  private final Log log;
+  private final CommunicationConfiguration configuration;
+  private final OutboundConfiguration outboundConfiguration;
+  private final Map<OutboundClass, Deque<Outbound>> buffers =
+    new EnumMap<>(OutboundClass.class);
+  private final Object bufferLock = new Object();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final Object readyLock = new Object();
+  @Getter
+  private final OutboundMetrics metrics = OutboundMetrics.create();
+  private final TunnelChunker chunker;
+  private final Deque<Written> replay = new ArrayDeque<>();
+  private final Set<String> discarded = Sets.newConcurrentHashSet();
+  private volatile ClientCallStreamObserver<TunnelMessage> stream;
+  private volatile Message handshake;
+  private volatile long lostAt = 0L;
+  private ClientCallStreamObserver<TunnelMessage> greetedStream;
+  private boolean started = false;
+
+  private static final long READY_POLL_MILLIS = 100L;
+
+  @Inject
+  private OutboundQueue(
+    Log log, CommunicationConfiguration configuration,
+    OutboundConfiguration outboundConfiguration
+  ) {
+    this.log = log;
+    this.configuration = configuration;
+    this.outboundConfiguration = outboundConfiguration;
+    this.chunker = TunnelChunker.create(configuration.chunkThresholdBytes());
+    for (var outboundClass : OutboundClass.values()) {
+      buffers.put(outboundClass, new ArrayDeque<>());
+    }
+  }
+
+  /**
+   * Starts writing queued messages to the tunnel
+   */
+  public synchronized void start() {
+    if (started) {
+      return;
+    }
+    started = true;
+    executor.execute(this::drain);
+  }
+
+  /**
+   * Sets the handshake that opens every stream
+   * @param handshake The handshake
+   */
+  void handshake(Message handshake) {
+    this.handshake = handshake;
+  }
+
+  /**
+   * Sets the stream the messages are written to
+   * @param stream The request stream of the tunnel
+   */
+  void attach(ClientCallStreamObserver<TunnelMessage> stream) {
+    this.stream = stream;
+    signalReady();
+    synchronized (bufferLock) {
+      bufferLock.notifyAll();
+    }
+  }
+
+  /**
+   * Stops writing until a new stream is attached
+   */
+  void detach() {
+    lostAt = System.nanoTime();
+    stream = null;
+  }
+
+  /**
+   * Discards the replies of the requests that were cancelled together with
+   * the lost stream, since the core no longer waits for them. Replies that
+   * are queued or sent later are dropped, written replies are not replayed to
+   * the next stream. The requests of a previously lost stream are forgotten
+   * @param requestIds The ids of the cancelled requests
+   */
+  void discard(Collection<String> requestIds) {
+    discarded.clear();
+    discarded.addAll(requestIds);
+    synchronized (bufferLock) {
+      var buffer = buffers.get(OutboundClass.REPLY);
+      var iterator = buffer.iterator();
+      while (iterator.hasNext()) {
+        var outbound = iterator.next();
+        if (discarded.contains(outbound.requestId())) {
+          iterator.remove();
+          metrics.dequeue(OutboundClass.REPLY);
+          metrics.drop(OutboundClass.REPLY);
+        }
+      }
+      bufferLock.notifyAll();
+    }
+  }
+
+  /**
+   * Wakes up the writer once the stream is able to accept messages again
+   */
+  void signalReady() {
+    synchronized (readyLock) {
+      readyLock.notifyAll();
+    }
+  }
+
+  /**
+   * Queues a message to be sent. If the buffer of its class is full, the
+   * policy of the class is applied
+   * @param requestId The id of the request, empty if the message is no reply
+   * @param message The message
+   */
+  public void enqueue(String requestId, Message message) {
+    var outbound = Outbound.create(OutboundClass.of(requestId, message),
+      requestId, message, System.nanoTime());
+    if (discarded.contains(requestId)) {
+      metrics.drop(outbound.outboundClass());
+      return;
+    }
+    try {
+      offer(outbound);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      metrics.drop(outbound.outboundClass());
+    }
+  }
+
+  private void offer(Outbound outbound) throws InterruptedException {
+    var outboundClass = outbound.outboundClass();
+    var buffer = buffers.get(outboundClass);
+    var capacity = outboundConfiguration.capacity(outboundClass);
+    synchronized (bufferLock) {
+      if (buffer.size() >= capacity) {
+        switch (outboundConfiguration.policy(outboundClass)) {
+          case BLOCK -> {
+            while (buffer.size() >= capacity) {
+              bufferLock.wait();
+            }
+          }
+          case DROP_NEWEST -> {
+            metrics.drop(outboundClass);
+            return;
+          }
+          case COALESCE -> {
+            if (coalesceLast(buffer, outbound)) {
+              return;
+            }
+            dropOldest(buffer);
+          }
+          case DROP_OLDEST -> dropOldest(buffer);
+        }
+      }
+      buffer.addLast(outbound);
+      metrics.enqueue(outboundClass);
+      bufferLock.notifyAll();
+    }
+  }
+
+  private boolean coalesceLast(Deque<Outbound> buffer, Outbound outbound) {
+    var last = buffer.peekLast();
+    if (last == null || !isMetricReport(last) || !isMetricReport(outbound)) {
+      return false;
+    }
+    buffer.pollLast();
+    buffer.addLast(Outbound.create(last.outboundClass(), "",
+      merge(List.of(last, outbound)), last.enqueued()));
+    metrics.coalesce(1);
+    return true;
+  }
+
+  private void dropOldest(Deque<Outbound> buffer) {
+    var oldest = buffer.pollFirst();
+    if (oldest != null) {
+      metrics.dequeue(oldest.outboundClass());
+      metrics.drop(oldest.outboundClass());
+    }
+  }
+
+  private void drain() {
+    var batch = Lists.<Outbound>newArrayList();
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        if (needsGreeting()) {
+          var stream = awaitReady();
+          if (stream != greetedStream) {
+            greet(stream);
+          }
+          continue;
+        }
+        collect(batch);
+        if (!batch.isEmpty()) {
+          write(coalesce(batch));
+        }
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      } catch (Exception exception) {
+        log.processError(exception);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * Waits for the next message. Replies are written right away, telemetry
+   * waits for the flush window so further messages can be written with it
+   */
+  private void collect(List<Outbound> batch) throws InterruptedException {
+    var first = take();
+    if (first == null) {
+      return;
+    }
+    batch.add(first);
+    var batchSize = Math.max(1, configuration.flushBatchSize());
+    if (first.outboundClass() != OutboundClass.REPLY) {
+      var deadline = System.nanoTime() +
+        TimeUnit.MILLISECONDS.toNanos(configuration.flushWindowMillis());
+      while (batch.size() < batchSize) {
+        var next = poll(deadline - System.nanoTime());
+        if (next == null) {
+          break;
+        }
+        batch.add(next);
+        if (next.outboundClass() == OutboundClass.REPLY) {
+          break;
+        }
+      }
+    }
+    while (batch.size() < batchSize) {
+      var next = poll(0);
+      if (next == null) {
+        break;
+      }
+      batch.add(next);
+    }
+  }
+
+  /**
+   * Waits for the next message
+   * @return The message or null if a new stream has to be greeted first
+   */
+  private Outbound take() throws InterruptedException {
+    synchronized (bufferLock) {
+      var outbound = next();
+      while (outbound == null) {
+        if (needsGreeting()) {
+          return null;
+        }
+        bufferLock.wait();
+        outbound = next();
+      }
+      return outbound;
+    }
+  }
+
+  private Outbound poll(long timeoutNanos) throws InterruptedException {
+    var deadline = System.nanoTime() + timeoutNanos;
+    synchronized (bufferLock) {
+      var outbound = next();
+      while (outbound == null) {
+        var remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return null;
+        }
+        TimeUnit.NANOSECONDS.timedWait(bufferLock, remaining);
+        outbound = next();
+      }
+      return outbound;
+    }
+  }
+
+  /**
+   * Takes the oldest message of the class with the highest priority, must be
+   * called while holding the buffer lock
+   */
+  private Outbound next() {
+    for (var outboundClass : OutboundClass.values()) {
+      var outbound = buffers.get(outboundClass).pollFirst();
+      if (outbound != null) {
+        metrics.dequeue(outboundClass);
+        bufferLock.notifyAll();
+        return outbound;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Orders the batch by priority and merges all metric reports of the batch
+   * into the position of the first one
+   */
+  private List<Outbound> coalesce(List<Outbound> batch) {
+    batch.sort(Comparator.comparing(Outbound::outboundClass));
+    var reports = Lists.<Outbound>newArrayList();
+    for (var outbound : batch) {
+      if (isMetricReport(outbound)) {
+        reports.add(outbound);
+      }
+    }
+    if (reports.size() < 2) {
+      return batch;
+    }
+    var first = reports.get(0);
+    var result = Lists.<Outbound>newArrayListWithCapacity(batch.size());
+    for (var outbound : batch) {
+      if (outbound == first) {
+        result.add(Outbound.create(first.outboundClass(), "", merge(reports),
+          first.enqueued()));
+      } else if (!isMetricReport(outbound)) {
+        result.add(outbound);
+      }
+    }
+    metrics.coalesce(reports.size() - 1);
+    return result;
+  }
+
+  /**
+   * Merges metric reports, the latest metric of every node wins
+   */
+  private MetricReport merge(List<Outbound> reports) {
+    var latest = Maps.<String, Metric>newLinkedHashMap();
+    for (var outbound : reports) {
+      var report = (MetricReport) outbound.message();
+      for (var metric : report.getMetricsList()) {
+        latest.put(metric.getNode(), metric);
+      }
+    }
+    return MetricReport.newBuilder().addAllMetrics(latest.values()).build();
+  }
+
+  private boolean isMetricReport(Outbound outbound) {
+    return outbound.requestId().isEmpty() &&
+      outbound.message() instanceof MetricReport;
+  }
+
+  private void write(List<Outbound> batch) throws InterruptedException {
+    for (var outbound : batch) {
+      var message = TunnelMessage.newBuilder()
+        .setPayload(Any.pack(outbound.message()));
+      if (!outbound.requestId().isEmpty()) {
+        message.setRequestId(outbound.requestId());
+      }
+      write(outbound.outboundClass(), message.build());
+      metrics.write(System.nanoTime() - outbound.enqueued());
+    }
+    metrics.flush();
+  }
+
+  /**
+   * Writes a message, or all of its chunks if it exceeds the chunk threshold.
+   * If the stream is replaced in between, the chunks are written again to the
+   * new stream, unless the request of the message was cancelled meanwhile
+   */
+  private void write(OutboundClass outboundClass, TunnelMessage message)
+    throws InterruptedException {
+    var chunks = chunker.split(message);
+    ClientCallStreamObserver<TunnelMessage> target = null;
+    var index = 0;
+    while (index < chunks.size()) {
+      var stream = awaitReady();
+      if (stream != greetedStream) {
+        greet(stream);
+      }
+      if (stream != target) {
+        if (target != null && discarded.contains(message.getRequestId())) {
+          return;
+        }
+        target = stream;
+        index = 0;
+      }
+      stream.onNext(chunks.get(index++));
+    }
+    remember(outboundClass, message);
+  }
+
+  /**
+   * Opens a new stream with the handshake and replays the replies that were
+   * written within the replay window before the previous stream was lost
+   */
+  private void greet(ClientCallStreamObserver<TunnelMessage> stream) {
+    var handshake = this.handshake;
+    if (handshake != null) {
+      stream.onNext(TunnelMessage.newBuilder()
+        .setPayload(Any.pack(handshake)).build());
+    }
+    if (greetedStream != null) {
+      var windowStart = lostAt -
+        TimeUnit.MILLISECONDS.toNanos(configuration.replayWindowMillis());
+      var replayed = 0;
+      for (var written : replay) {
+        if (written.writtenAt() - windowStart >= 0 &&
+          !discarded.contains(written.message().getRequestId())
+        ) {
+          chunker.split(written.message()).forEach(stream::onNext);
+          replayed++;
+        }
+      }
+      metrics.replay(replayed);
+    }
+    replay.clear();
+    greetedStream = stream;
+  }
+
+  private boolean needsGreeting() {
+    var stream = this.stream;
+    return stream != null && stream != greetedStream;
+  }
+
+  private void remember(OutboundClass outboundClass, TunnelMessage message) {
+    var capacity = configuration.replayCapacity();
+    if (capacity <= 0 || outboundClass != OutboundClass.REPLY) {
+      return;
+    }
+    replay.addLast(Written.create(message, System.nanoTime()));
+    while (replay.size() > capacity) {
+      replay.pollFirst();
+    }
+  }
+
+  private ClientCallStreamObserver<TunnelMessage> awaitReady()
+    throws InterruptedException {
+    synchronized (readyLock) {
+      while (true) {
+        var stream = this.stream;
+        if (stream != null && stream.isReady()) {
+          return stream;
+        }
+        readyLock.wait(READY_POLL_MILLIS);
+      }
+    }
+  }
+
+  @Getter
+  @Accessors(fluent = true)
+  @RequiredArgsConstructor(staticName = "create")
+  private static final class Outbound {
+    private final OutboundClass outboundClass;
+    private final String requestId;
+    private final Message message;
+    private final long enqueued;
+  }
+
+  @Getter
+  @Accessors(fluent = true)
+  @RequiredArgsConstructor(staticName = "create")
+  private static final class Written {
+    private final TunnelMessage message;
+    private final long writtenAt;
+  }
+}
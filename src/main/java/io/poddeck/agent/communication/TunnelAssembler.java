@@ -0,0 +1,110 @@
+package io.poddeck.agent.communication;
+
+import com.google.common.collect.Maps;
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import io.poddeck.common.TunnelMessage;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reassembles messages that were split by a {@link TunnelChunker}. Chunks
+ * of a tunnel arrive one at a time, so the assembler is not thread safe. Only
+ * a limited amount of incomplete messages is kept, the oldest one is
+ * discarded when the limit is exceeded. Messages that would exceed the
+ * maximum message size are discarded, as are chunks whose count does not fit
+ * that size
+ */
+final class TunnelAssembler {
+  private final Map<String, Assembly> assemblies = Maps.newLinkedHashMap();
+
+  private static final int MAX_ASSEMBLIES = 64;
+  private static final int MAX_MESSAGE_BYTES = 64 * 1024 * 1024;
+  private static final int MAX_CHUNKS =
+    MAX_MESSAGE_BYTES / TunnelChunker.MIN_CHUNK_BYTES;
+
+  static TunnelAssembler create() {
+    return new TunnelAssembler();
+  }
+
+  /**
+   * @param message A message received through the tunnel
+   * @return The message itself, the reassembled message once its last chunk
+   * has arrived or empty if further chunks are missing
+   */
+  Optional<TunnelMessage> accept(TunnelMessage message) {
+    var typeUrl = message.getPayload().getTypeUrl();
+    if (!typeUrl.startsWith(TunnelChunker.CHUNK_TYPE_PREFIX)) {
+      return Optional.of(message);
+    }
+    var parts = typeUrl.substring(TunnelChunker.CHUNK_TYPE_PREFIX.length())
+      .split("/", 4);
+    if (parts.length != 4) {
+      return Optional.empty();
+    }
+    int index;
+    int count;
+    try {
+      index = Integer.parseInt(parts[1]);
+      count = Integer.parseInt(parts[2]);
+    } catch (NumberFormatException exception) {
+      return Optional.empty();
+    }
+    if (count <= 0 || count > MAX_CHUNKS || index < 0 || index >= count) {
+      return Optional.empty();
+    }
+    var assembly = assemblies.computeIfAbsent(parts[0],
+      key -> new Assembly(count));
+    if (assemblies.size() > MAX_ASSEMBLIES) {
+      var oldest = assemblies.keySet().iterator();
+      oldest.next();
+      oldest.remove();
+    }
+    if (assembly.chunks.length != count) {
+      return Optional.empty();
+    }
+    var chunk = message.getPayload().getValue();
+    if ((long) assembly.bytes + chunk.size() > MAX_MESSAGE_BYTES) {
+      assemblies.remove(parts[0]);
+      return Optional.empty();
+    }
+    if (!assembly.add(index, chunk)) {
+      return Optional.empty();
+    }
+    assemblies.remove(parts[0]);
+    return Optional.of(message.toBuilder()
+      .setPayload(Any.newBuilder()
+        .setTypeUrl(parts[3])
+        .setValue(ByteString.copyFrom(Arrays.asList(assembly.chunks))))
+      .build());
+  }
+
+  private static final class Assembly {
+    private final ByteString[] chunks;
+    private int received = 0;
+    private int bytes = 0;
+
+    private Assembly(int count) {
+      chunks = new ByteString[count];
+    }
+
+    /**
+     * @return Whether all chunks have been received
+     */
+    private boolean add(int index, ByteString chunk) {
+      if (index >= chunks.length) {
+        return false;
+      }
+      if (chunks[index] == null) {
+        received++;
+      } else {
+        bytes -= chunks[index].size();
+      }
+      chunks[index] = chunk;
+      bytes += chunk.size();
+      return received == chunks.length;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package io.poddeck.agent.communication;
+
+import com.google.common.collect.Lists;
+import com.google.protobuf.Any;
+import io.poddeck.common.TunnelMessage;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Splits tunnel messages whose payload exceeds the chunk threshold into
+ * several messages, so no message has to fit into the message size limit of
+ * the channel. The protocol has no chunk fields, so every chunk carries an any
+ * whose type url describes the chunk and whose value is a slice of the
+ * original payload. The receiver reassembles the chunks with a
+ * {@link TunnelAssembler}
+ */
+final class TunnelChunker {
+  static final String CHUNK_TYPE_PREFIX = "type.poddeck.io/chunk/";
+  /**
+   * Every chunk but the last one is at least this large
+   */
+  static final int MIN_CHUNK_BYTES = 1024;
+
+  private final int threshold;
+  private final AtomicLong ids = new AtomicLong();
+
+  private TunnelChunker(int threshold) {
+    this.threshold = threshold > 0 ?
+      Math.max(MIN_CHUNK_BYTES, threshold) : threshold;
+  }
+
+  /**
+   * @param threshold The maximum payload size of a message in bytes, chunking
+   *                  is disabled if not positive. Thresholds below the
+   *                  minimum chunk size are raised to it
+   * @return The chunker
+   */
+  static TunnelChunker create(int threshold) {
+    return new TunnelChunker(threshold);
+  }
+
+  /**
+   * @param message The message
+   * @return The message itself or its chunks, in the order they are to be sent
+   */
+  List<TunnelMessage> split(TunnelMessage message) {
+    var payload = message.getPayload();
+    var value = payload.getValue();
+    if (threshold <= 0 || value.size() <= threshold) {
+      return List.of(message);
+    }
+    var id = ids.incrementAndGet();
+    var count = (value.size() + threshold - 1) / threshold;
+    var chunks = Lists.<TunnelMessage>newArrayListWithCapacity(count);
+    for (var index = 0; index < count; index++) {
+      var start = index * threshold;
+      var end = Math.min(value.size(), start + threshold);
+      chunks.add(message.toBuilder()
+        .setPayload(Any.newBuilder()
+          .setTypeUrl(CHUNK_TYPE_PREFIX + id + "/" + index + "/" + count +
+            "/" + payload.getTypeUrl())
+          .setValue(value.substring(start, end)))
+        .build());
+    }
+    return chunks;
+  }
+}
@@ -1,39 +1,49 @@
 package io.poddeck.agent.communication;
 
 import io.grpc.StatusRuntimeException;
-import io.grpc.stub.StreamObserver;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import io.poddeck.agent.communication.service.ServiceRepository;
 import io.poddeck.common.TunnelMessage;
 import io.poddeck.common.log.Log;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor(staticName = "create")
-public final class TunnelService implements StreamObserver<TunnelMessage> {
+public final class TunnelService
+  implements ClientResponseObserver<TunnelMessage, TunnelMessage> {
   private final Log log;
   private final CommunicationClient client;
   private final ServiceRepository serviceRepository;
+  private final OutboundQueue outboundQueue;
+  private final TunnelAssembler assembler = TunnelAssembler.create();
+
+  @Override
+  public void beforeStart(
+    ClientCallStreamObserver<TunnelMessage> requestStream
+  ) {
+    requestStream.setOnReadyHandler(outboundQueue::signalReady);
+    outboundQueue.attach(requestStream);
+  }
 
   @Override
   public void onNext(TunnelMessage message) {
-    serviceRepository.dispatch(client, message.getRequestId(), message);
+    client.tunnelEstablished(this);
+    assembler.accept(message).ifPresent(assembled ->
+      serviceRepository.dispatch(client, assembled.getRequestId(), assembled));
   }
 
   @Override
   public void onError(Throwable throwable) {
-    log.processError(throwable);
     if (throwable instanceof StatusRuntimeException) {
-      processDisconnect();
+      log.warning("Tunnel closed: " + throwable.getMessage());
+    } else {
+      log.processError(throwable);
     }
+    client.tunnelLost(this);
   }
 
   @Override
   public void onCompleted() {
-    processDisconnect();
-  }
-
-  private void processDisconnect() {
-    log.warning("Connection lost");
-    log.info("Shutting down...");
-    System.exit(0);
+    client.tunnelLost(this);
   }
 }
@@ -0,0 +1,24 @@
+package io.poddeck.agent.communication.service;
+
+import io.poddeck.common.configuration.Configuration;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import org.apache.commons.configuration2.AbstractConfiguration;
+
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public class DispatchConfiguration implements Configuration {
+  private int serviceConcurrency;
+  private int queueCapacity;
+  private int requestTimeoutSeconds;
+
+  @Override
+  public void load(AbstractConfiguration file) {
+    serviceConcurrency = file.getInt("dispatch.service_concurrency", 16);
+    queueCapacity = file.getInt("dispatch.queue_capacity", 1024);
+    requestTimeoutSeconds =
+      file.getInt("dispatch.request_timeout_seconds", 300);
+  }
+}
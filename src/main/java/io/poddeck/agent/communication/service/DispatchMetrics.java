@@ -0,0 +1,109 @@
+package io.poddeck.agent.communication.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing the state of the {@link ServiceDispatcher}
+ */
+public final class DispatchMetrics {
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicInteger running = new AtomicInteger();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder cancelled = new LongAdder();
+  private final LongAdder totalQueueNanos = new LongAdder();
+  private final LongAdder totalServiceNanos = new LongAdder();
+  private final LongAccumulator maxServiceNanos =
+    new LongAccumulator(Math::max, 0);
+
+  static DispatchMetrics create() {
+    return new DispatchMetrics();
+  }
+
+  void enqueue() {
+    queued.incrementAndGet();
+  }
+
+  void begin(long queueNanos) {
+    queued.decrementAndGet();
+    running.incrementAndGet();
+    totalQueueNanos.add(queueNanos);
+  }
+
+  void end(long serviceNanos) {
+    running.decrementAndGet();
+    completed.increment();
+    totalServiceNanos.add(serviceNanos);
+    maxServiceNanos.accumulate(serviceNanos);
+  }
+
+  void dequeue() {
+    queued.decrementAndGet();
+  }
+
+  void reject() {
+    rejected.increment();
+  }
+
+  void cancel() {
+    cancelled.increment();
+  }
+
+  /**
+   * @return The amount of requests waiting for a free service slot
+   */
+  public int queueDepth() {
+    return queued.get();
+  }
+
+  /**
+   * @return The amount of requests currently being processed
+   */
+  public int running() {
+    return running.get();
+  }
+
+  public long completed() {
+    return completed.sum();
+  }
+
+  public long rejected() {
+    return rejected.sum();
+  }
+
+  /**
+   * @return The amount of requests that were cancelled or exceeded their
+   * deadline
+   */
+  public long cancelled() {
+    return cancelled.sum();
+  }
+
+  /**
+   * @return The average time a request waited for a service slot in millis
+   */
+  public double averageQueueMillis() {
+    return average(totalQueueNanos.sum());
+  }
+
+  /**
+   * @return The average time a service took to process a request in millis
+   */
+  public double averageServiceMillis() {
+    return average(totalServiceNanos.sum());
+  }
+
+  public double maxServiceMillis() {
+    return maxServiceNanos.get() / 1_000_000D;
+  }
+
+  private double average(long totalNanos) {
+    var count = completed.sum();
+    if (count == 0) {
+      return 0;
+    }
+    return totalNanos / 1_000_000D / count;
+  }
+}
@@ -0,0 +1,153 @@
+package io.poddeck.agent.communication.service;
+
+import com.google.common.collect.Sets;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import okhttp3.Call;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * The state of a request while it is processed by a service. A request is
+ * cancelled when the core gives up on it, when its deadline has passed or
+ * when the tunnel is lost. Cancelling interrupts the thread of the service
+ * and cancels all kubernetes calls the service is waiting for
+ */
+@Accessors(fluent = true)
+public final class RequestContext {
+  private static final ThreadLocal<RequestContext> CURRENT =
+    new ThreadLocal<>();
+
+  @Getter
+  private final String requestId;
+  private final Set<Call> calls = Sets.newConcurrentHashSet();
+  private volatile boolean cancelled = false;
+  private volatile Thread thread;
+  private volatile Runnable streamListener;
+
+  private RequestContext(String requestId) {
+    this.requestId = requestId;
+  }
+
+  static RequestContext create(String requestId) {
+    return new RequestContext(requestId);
+  }
+
+  /**
+   * @return The context of the request the current thread is processing
+   */
+  public static Optional<RequestContext> current() {
+    return Optional.ofNullable(CURRENT.get());
+  }
+
+  /**
+   * Runs a task outside of the context of the current request, so it is not
+   * affected by a cancellation. Used for cleanup that has to happen anyway
+   * @param task The task
+   */
+  public static void detached(Runnable task) {
+    var context = CURRENT.get();
+    CURRENT.remove();
+    var interrupted = Thread.interrupted();
+    try {
+      task.run();
+    } finally {
+      if (context != null) {
+        CURRENT.set(context);
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Runs a part of the request on another thread. The kubernetes calls of the
+   * task are cancelled together with the request, the thread itself is not
+   * interrupted
+   * @param task The task
+   * @return The result of the task
+   */
+  public <T> T supply(Supplier<T> task) {
+    var previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      return task.get();
+    } finally {
+      if (previous != null) {
+        CURRENT.set(previous);
+      } else {
+        CURRENT.remove();
+      }
+    }
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Turns the request into a stream that runs until it ends by itself. The
+   * request no longer counts against the concurrency of its service and has
+   * no deadline, it is still cancelled explicitly or when the tunnel is lost
+   */
+  public void stream() {
+    var listener = streamListener;
+    streamListener = null;
+    if (listener != null) {
+      listener.run();
+    }
+  }
+
+  void onStream(Runnable listener) {
+    this.streamListener = listener;
+  }
+
+  void attach(Thread thread) {
+    this.thread = thread;
+    CURRENT.set(this);
+    if (cancelled) {
+      thread.interrupt();
+    }
+  }
+
+  void detach() {
+    thread = null;
+    CURRENT.remove();
+  }
+
+  /**
+   * @return Whether the call may proceed, false if the request is cancelled
+   */
+  boolean register(Call call) {
+    calls.add(call);
+    if (cancelled) {
+      calls.remove(call);
+      return false;
+    }
+    return true;
+  }
+
+  void unregister(Call call) {
+    calls.remove(call);
+  }
+
+  /**
+   * Cancels the request
+   */
+  void cancel() {
+    if (cancelled) {
+      return;
+    }
+    cancelled = true;
+    for (var call : calls) {
+      call.cancel();
+    }
+    var thread = this.thread;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package io.poddeck.agent.communication.service;
+
+import lombok.RequiredArgsConstructor;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * Registers every kubernetes call that is made while processing a request
+ * with the {@link RequestContext} of the request, so the call is cancelled
+ * together with the request. Calls of a cancelled request fail right away
+ */
+@RequiredArgsConstructor(staticName = "create")
+public final class RequestContextInterceptor implements Interceptor {
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    var context = RequestContext.current();
+    if (context.isEmpty()) {
+      return chain.proceed(chain.request());
+    }
+    var call = chain.call();
+    if (!context.get().register(call)) {
+      throw new IOException("Request " + context.get().requestId() +
+        " was cancelled");
+    }
+    try {
+      return chain.proceed(chain.request());
+    } finally {
+      context.get().unregister(call);
+    }
+  }
+}
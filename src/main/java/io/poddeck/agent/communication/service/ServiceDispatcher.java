@@ -0,0 +1,184 @@
+package io.poddeck.agent.communication.service;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.protobuf.Message;
+import io.poddeck.agent.communication.CommunicationClient;
+import io.poddeck.common.log.Log;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs services on virtual threads. Every service may only process a limited
+ * amount of requests at once, further requests wait in a bounded queue. When
+ * the queue is full, the request is rejected with the response registered
+ * for its service. Every request gets a {@link RequestContext} which is
+ * cancelled once the request timeout has passed or when the request is
+ * cancelled explicitly, also while it still waits for a service slot. A
+ * request that turns into a stream, see {@link RequestContext#stream()},
+ * gives up its service permit and its deadline
+ */
+@Singleton
+@Accessors(fluent = true)
+public final class ServiceDispatcher {
+  private final Log log;
+  private final DispatchConfiguration configuration;
+  private final ExecutorService executor =
+    Executors.newVirtualThreadPerTaskExecutor();
+  private final ScheduledExecutorService deadlines =
+    Executors.newSingleThreadScheduledExecutor();
+  private final Semaphore capacity;
+  private final Map<String, RequestContext> contexts = Maps.newConcurrentMap();
+  private final Map<Service<?>, Semaphore> servicePermits =
+    Maps.newConcurrentMap();
+  @Getter
+  private final DispatchMetrics metrics = DispatchMetrics.create();
+
+  @Inject
+  private ServiceDispatcher(Log log, DispatchConfiguration configuration) {
+    this.log = log;
+    this.configuration = configuration;
+    this.capacity = new Semaphore(configuration.queueCapacity());
+  }
+
+  /**
+   * Schedules a message to be processed by a service
+   * @param service The service that processes the message
+   * @param rejection The response that is sent if the queue is full
+   * @param client The client
+   * @param requestId The id of the request
+   * @param message The unpacked message
+   */
+  public void dispatch(
+    Service<Message> service, Message rejection, CommunicationClient client,
+    String requestId, Message message
+  ) {
+    if (!capacity.tryAcquire()) {
+      metrics.reject();
+      log.warning("Rejected " + message.getDescriptorForType().getName() +
+        ", dispatch queue is full");
+      client.send(requestId, rejection);
+      return;
+    }
+    metrics.enqueue();
+    var enqueued = System.nanoTime();
+    var context = RequestContext.create(requestId);
+    if (!requestId.isEmpty()) {
+      contexts.put(requestId, context);
+    }
+    executor.execute(() -> process(service, client, context, message,
+      enqueued));
+  }
+
+  private void process(
+    Service<Message> service, CommunicationClient client,
+    RequestContext context, Message message, long enqueued
+  ) {
+    var permits = servicePermits.computeIfAbsent(service,
+      key -> new Semaphore(configuration.serviceConcurrency()));
+    var timeout = configuration.requestTimeoutSeconds() > 0 ?
+      deadlines.schedule(() -> expire(context),
+        configuration.requestTimeoutSeconds(), TimeUnit.SECONDS) : null;
+    var released = new AtomicBoolean(false);
+    context.attach(Thread.currentThread());
+    try {
+      try {
+        permits.acquire();
+      } catch (InterruptedException exception) {
+        released.set(true);
+        capacity.release();
+      }
+      if (released.get() || context.isCancelled()) {
+        metrics.dequeue();
+        return;
+      }
+      var start = System.nanoTime();
+      metrics.begin(start - enqueued);
+      context.onStream(() -> {
+        if (timeout != null) {
+          timeout.cancel(false);
+        }
+        release(permits, released);
+      });
+      try {
+        service.process(client, context.requestId(), message);
+      } catch (Exception exception) {
+        if (!context.isCancelled()) {
+          log.processError(exception);
+        }
+      } finally {
+        context.onStream(null);
+        metrics.end(System.nanoTime() - start);
+      }
+    } finally {
+      context.detach();
+      if (timeout != null) {
+        timeout.cancel(false);
+      }
+      contexts.remove(context.requestId(), context);
+      release(permits, released);
+    }
+  }
+
+  /**
+   * Releases the permit of the service and the slot in the dispatch queue of
+   * a request. A stream releases them before it ends, so they are only
+   * released once
+   */
+  private void release(Semaphore permits, AtomicBoolean released) {
+    if (released.compareAndSet(false, true)) {
+      permits.release();
+      capacity.release();
+    }
+  }
+
+  private void expire(RequestContext context) {
+    log.warning("Request " + context.requestId() + " exceeded its deadline");
+    cancel(context);
+  }
+
+  /**
+   * Cancels a request that is waiting or being processed
+   * @param requestId The id of the request
+   * @return Whether a request with this id was found
+   */
+  public boolean cancel(String requestId) {
+    var context = contexts.get(requestId);
+    if (context == null) {
+      return false;
+    }
+    cancel(context);
+    return true;
+  }
+
+  /**
+   * Cancels all requests that are waiting or being processed
+   * @return The ids of the cancelled requests
+   */
+  public List<String> cancelAll() {
+    var requestIds = Lists.<String>newArrayList();
+    for (var context : contexts.values()) {
+      cancel(context);
+      requestIds.add(context.requestId());
+    }
+    return requestIds;
+  }
+
+  private void cancel(RequestContext context) {
+    if (!context.isCancelled()) {
+      metrics.cancel();
+    }
+    context.cancel();
+  }
+}
@@ -3,30 +3,39 @@ package io.poddeck.agent.communication.service;
 import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.protobuf.Internal;
 import com.google.protobuf.Message;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.common.TunnelMessage;
 import io.poddeck.common.log.Log;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
 
+import java.util.List;
 import java.util.Map;
 
 @Singleton
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class ServiceRepository {
   private final Log log;
-  private final Map<Class<? extends Message>, Service<?>> services = Maps.newConcurrentMap();
+  private final ServiceDispatcher dispatcher;
+  private final Map<String, Registration> services = Maps.newConcurrentMap();
 
   /**
    * Registers a new service
    * @param messageClass The class of the message of the service
    * @param service The service that is to be registered
+   * @param rejection The response that is sent when a request is rejected
+   *                  because the dispatch queue is full
    */
   public <T extends Message> void register(
-    Class<T> messageClass, Service<T> service
+    Class<T> messageClass, Service<T> service, Message rejection
   ) {
-    services.put(messageClass, service);
+    var prototype = Internal.getDefaultInstance(messageClass);
+    services.put(prototype.getDescriptorForType().getFullName(),
+      Registration.create(prototype, (Service<Message>) service, rejection));
   }
 
   /**
@@ -34,11 +43,14 @@ public final class ServiceRepository {
    * @param messageClass The class of the message of the service that is to be unregistered
    */
   public <T extends Message> void unregister(Class<T> messageClass) {
-    services.remove(messageClass);
+    services.remove(Internal.getDefaultInstance(messageClass)
+      .getDescriptorForType().getFullName());
   }
 
   /**
-   * Is used to dispatch a message to a service
+   * Is used to dispatch a message to a service. A message without a payload
+   * cancels the request with its id, this is how the core stops a request it
+   * no longer waits for, like a followed log
    * @param client The client
    * @param requestId The id of the request
    * @param message The message to be dispatched
@@ -48,28 +60,53 @@ public final class ServiceRepository {
   ) {
     try {
       var payload = message.getPayload();
-      for (var messageClass : services.keySet()) {
-        if (!payload.is(messageClass)) {
-          continue;
+      if (payload.getTypeUrl().isEmpty()) {
+        if (!requestId.isEmpty()) {
+          cancel(requestId);
         }
-        var unpacked = payload.unpack(messageClass);
-        var service = services.get(messageClass);
-        new Thread(() -> callService((Service<Message>) service, client,
-          requestId, unpacked)).start();
+        return;
       }
+      var registration = services.get(typeName(payload.getTypeUrl()));
+      if (registration == null) {
+        return;
+      }
+      var unpacked = registration.prototype().getParserForType()
+        .parseFrom(payload.getValue());
+      dispatcher.dispatch(registration.service(), registration.rejection(),
+        client, requestId, unpacked);
     } catch (Exception exception) {
       log.processError(exception);
     }
   }
 
-  private void callService(
-    Service<Message> service, CommunicationClient client, String requestId,
-    Message message
-  ) {
-    try {
-      service.process(client, requestId, message);
-    } catch (Exception exception) {
-      log.processError(exception);
-    }
+  /**
+   * Cancels a request that is waiting or being processed. Its kubernetes
+   * calls are cancelled and the thread of its service is interrupted
+   * @param requestId The id of the request
+   * @return Whether a request with this id was found
+   */
+  public boolean cancel(String requestId) {
+    return dispatcher.cancel(requestId);
+  }
+
+  /**
+   * Cancels all requests that are waiting or being processed
+   * @return The ids of the cancelled requests
+   */
+  public List<String> cancelAll() {
+    return dispatcher.cancelAll();
+  }
+
+  private String typeName(String typeUrl) {
+    return typeUrl.substring(typeUrl.lastIndexOf('/') + 1);
+  }
+
+  @Getter
+  @Accessors(fluent = true)
+  @RequiredArgsConstructor(staticName = "create")
+  private static final class Registration {
+    private final Message prototype;
+    private final Service<Message> service;
+    private final Message rejection;
   }
 }
@@ -4,12 +4,12 @@ import com.google.api.client.util.Lists;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.BatchV1Api;
-import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.*;
-import io.kubernetes.client.util.Yaml;
+import io.poddeck.agent.cache.MessageCache;
+import io.poddeck.agent.cache.YamlCache;
+import io.poddeck.agent.event.EventIndex;
 import io.poddeck.agent.pod.PodFactory;
 import io.poddeck.common.*;
-import io.poddeck.common.log.Log;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 
@@ -21,17 +21,38 @@ import java.util.Optional;
 @Singleton
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class CronJobFactory {
-  private final CoreV1Api coreApi;
+  private final EventIndex eventIndex;
   private final PodFactory podFactory;
-  private final Log log;
+  private final YamlCache yamlCache;
+  private final MessageCache messageCache;
 
   public CronJob assembleCronJob(V1CronJob cronJob) {
-    return CronJob.newBuilder()
-      .setMetadata(assembleMetadata(cronJob))
-      .setSpec(assembleSpec(cronJob))
-      .setStatus(assembleStatus(cronJob))
+    return assembleCronJob(cronJob, true);
+  }
+
+  /**
+   * Assembles a cron job as an item of a list response, which only carries
+   * the raw yaml if configured
+   */
+  public CronJob assembleCronJobListItem(V1CronJob cronJob) {
+    return assembleCronJob(cronJob, yamlCache.includeInLists());
+  }
+
+  private CronJob assembleCronJob(V1CronJob cronJob, boolean raw) {
+    var cached = messageCache.find(cronJob, raw, () -> {
+      var builder = CronJob.newBuilder()
+        .setMetadata(assembleMetadata(cronJob))
+        .setSpec(assembleSpec(cronJob))
+        .setStatus(assembleStatus(cronJob));
+      if (raw) {
+        builder.setRaw(yamlCache.dump(cronJob));
+      }
+      return builder.build();
+    });
+    return cached.toBuilder()
+      .setStatus(cached.getStatus().toBuilder()
+        .setAge(calculateAge(cronJob)))
       .addAllEvents(assembleCronJobEvents(cronJob))
-      .setRaw(Yaml.dump(cronJob))
       .build();
   }
 
@@ -109,13 +130,6 @@ public final class CronJobFactory {
       return CronJobStatus.newBuilder().build();
     }
     var status = cronJob.getStatus();
-    long age = 0L;
-    if (cronJob.getMetadata() != null &&
-      cronJob.getMetadata().getCreationTimestamp() != null) {
-      age =
-        System.currentTimeMillis() -
-          cronJob.getMetadata().getCreationTimestamp().toEpochSecond() * 1000L;
-    }
     return CronJobStatus.newBuilder()
       .setActive(Optional.ofNullable(status.getActive())
         .map(List::size)
@@ -128,33 +142,28 @@ public final class CronJobFactory {
         Optional.ofNullable(status.getLastSuccessfulTime())
           .map(t -> t.toEpochSecond() * 1000)
           .orElse(0L))
-      .setAge(age)
       .build();
   }
 
+  private long calculateAge(V1CronJob cronJob) {
+    if (cronJob.getMetadata() == null ||
+      cronJob.getMetadata().getCreationTimestamp() == null
+    ) {
+      return 0L;
+    }
+    return System.currentTimeMillis() -
+      cronJob.getMetadata().getCreationTimestamp().toEpochSecond() * 1000L;
+  }
+
   private List<CronJobEvent> assembleCronJobEvents(V1CronJob cronJob) {
-    try {
-      var metadata = cronJob.getMetadata();
-      if (metadata == null) {
-        return Lists.newArrayList();
-      }
-      var namespace = metadata.getNamespace();
-      var name = metadata.getName();
-      var fieldSelector =
-        "involvedObject.kind=CronJob,involvedObject.name=" + name;
-      var items =
-        coreApi
-          .listNamespacedEvent(namespace)
-          .fieldSelector(fieldSelector)
-          .execute()
-          .getItems();
-      return items.stream()
-        .map(this::assembleCronJobEvent)
-        .toList();
-    } catch (Exception e) {
-      log.processError(e);
+    var metadata = cronJob.getMetadata();
+    if (metadata == null) {
       return Lists.newArrayList();
     }
+    return eventIndex.find(metadata.getNamespace(), "CronJob",
+        metadata.getName()).stream()
+      .map(this::assembleCronJobEvent)
+      .toList();
   }
 
   private CronJobEvent assembleCronJobEvent(CoreV1Event event) {
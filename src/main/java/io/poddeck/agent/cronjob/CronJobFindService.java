@@ -3,6 +3,8 @@ package io.poddeck.agent.cronjob;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.BatchV1Api;
+import io.kubernetes.client.openapi.models.V1CronJob;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.CronJobFindRequest;
@@ -15,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class CronJobFindService implements Service<CronJobFindRequest> {
   private final BatchV1Api batchV1Api;
+  private final ResourceCache resourceCache;
   private final CronJobFactory cronJobFactory;
   private final Log log;
 
@@ -23,8 +26,10 @@ public final class CronJobFindService implements Service<CronJobFindRequest> {
     CommunicationClient client, String requestId, CronJobFindRequest request
   ) throws Exception {
     try {
-      var cronJob = batchV1Api.readNamespacedCronJob(request.getCronJob(),
-        request.getNamespace()).execute();
+      var cronJob = resourceCache.find(V1CronJob.class,
+        request.getNamespace(), request.getCronJob(),
+        () -> batchV1Api.readNamespacedCronJob(request.getCronJob(),
+          request.getNamespace()).execute());
       client.send(requestId, CronJobFindResponse.newBuilder()
         .setSuccess(true)
         .setCronJob(cronJobFactory.assembleCronJob(cronJob))
@@ -24,19 +24,20 @@ public final class CronJobHook implements Hook {
 
   @EventHook
   private void applicationLaunch(ApplicationLaunchEvent event) {
-    serviceRepository.register(CronJobListRequest.class,
-      cronJobListService);
-    serviceRepository.register(CronJobFindRequest.class,
-      cronJobFindService);
-    serviceRepository.register(CronJobCreateRequest.class,
-      cronJobCreateService);
-    serviceRepository.register(CronJobDeleteRequest.class,
-      cronJobDeleteService);
+    serviceRepository.register(CronJobListRequest.class, cronJobListService,
+      CronJobListResponse.getDefaultInstance());
+    serviceRepository.register(CronJobFindRequest.class, cronJobFindService,
+      CronJobFindResponse.newBuilder().setSuccess(false).build());
+    serviceRepository.register(CronJobCreateRequest.class, cronJobCreateService,
+      CronJobCreateResponse.newBuilder().setSuccess(false).build());
+    serviceRepository.register(CronJobDeleteRequest.class, cronJobDeleteService,
+      CronJobDeleteResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(CronJobSuspendRequest.class,
-      cronJobSuspendService);
-    serviceRepository.register(CronJobRunRequest.class,
-      cronJobRunService);
-    serviceRepository.register(CronJobEditRequest.class,
-      cronJobEditService);
+      cronJobSuspendService,
+      CronJobSuspendResponse.newBuilder().setSuccess(false).build());
+    serviceRepository.register(CronJobRunRequest.class, cronJobRunService,
+      CronJobRunResponse.newBuilder().setSuccess(false).build());
+    serviceRepository.register(CronJobEditRequest.class, cronJobEditService,
+      CronJobEditResponse.newBuilder().setSuccess(false).build());
   }
 }
\ No newline at end of file
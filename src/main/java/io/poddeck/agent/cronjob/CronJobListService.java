@@ -3,6 +3,8 @@ package io.poddeck.agent.cronjob;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.BatchV1Api;
+import io.kubernetes.client.openapi.models.V1CronJob;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.CronJobListRequest;
@@ -14,17 +16,19 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class CronJobListService implements Service<CronJobListRequest> {
   private final BatchV1Api batchV1Api;
+  private final ResourceCache resourceCache;
   private final CronJobFactory cronJobFactory;
 
   @Override
   public void process(
     CommunicationClient client, String requestId, CronJobListRequest request
   ) throws Exception {
-    var cronJobList = batchV1Api.listCronJobForAllNamespaces().execute().getItems();
-    var cronJobs = cronJobList.stream()
-      .map(cronJobFactory::assembleCronJob).toList();
-    client.send(requestId, CronJobListResponse.newBuilder()
-      .addAllItems(cronJobs)
-      .build());
+    var cronJobList = resourceCache.listPages(V1CronJob.class,
+      (limit, continueToken) -> batchV1Api.listCronJobForAllNamespaces()
+        .limit(limit)._continue(continueToken).execute());
+    client.sendList(requestId, cronJobList,
+      cronJobFactory::assembleCronJobListItem,
+      cronJobs -> CronJobListResponse.newBuilder()
+        .addAllItems(cronJobs).build());
   }
 }
@@ -3,12 +3,12 @@ package io.poddeck.agent.daemonset;
 import com.google.api.client.util.Lists;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.*;
-import io.kubernetes.client.util.Yaml;
+import io.poddeck.agent.cache.MessageCache;
+import io.poddeck.agent.cache.YamlCache;
+import io.poddeck.agent.event.EventIndex;
 import io.poddeck.agent.pod.PodFactory;
 import io.poddeck.common.*;
-import io.poddeck.common.log.Log;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 
@@ -20,17 +20,38 @@ import java.util.Optional;
 @Singleton
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class DaemonSetFactory {
-  private final CoreV1Api coreApi;
+  private final EventIndex eventIndex;
   private final PodFactory podFactory;
-  private final Log log;
+  private final YamlCache yamlCache;
+  private final MessageCache messageCache;
 
   public DaemonSet assembleDaemonSet(V1DaemonSet daemonSet) {
-    return DaemonSet.newBuilder()
-      .setMetadata(assembleMetadata(daemonSet))
-      .setSpec(assembleSpec(daemonSet))
-      .setStatus(assembleStatus(daemonSet))
+    return assembleDaemonSet(daemonSet, true);
+  }
+
+  /**
+   * Assembles a daemon set as an item of a list response, which only carries
+   * the raw yaml if configured
+   */
+  public DaemonSet assembleDaemonSetListItem(V1DaemonSet daemonSet) {
+    return assembleDaemonSet(daemonSet, yamlCache.includeInLists());
+  }
+
+  private DaemonSet assembleDaemonSet(V1DaemonSet daemonSet, boolean raw) {
+    var cached = messageCache.find(daemonSet, raw, () -> {
+      var builder = DaemonSet.newBuilder()
+        .setMetadata(assembleMetadata(daemonSet))
+        .setSpec(assembleSpec(daemonSet))
+        .setStatus(assembleStatus(daemonSet));
+      if (raw) {
+        builder.setRaw(yamlCache.dump(daemonSet));
+      }
+      return builder.build();
+    });
+    return cached.toBuilder()
+      .setStatus(cached.getStatus().toBuilder()
+        .setAge(calculateAge(daemonSet)))
       .addAllEvents(assembleDaemonSetEvents(daemonSet))
-      .setRaw(Yaml.dump(daemonSet))
       .build();
   }
 
@@ -138,14 +159,6 @@ public final class DaemonSetFactory {
         .map(this::assembleDaemonSetCondition).toList() :
       Lists.<DaemonSetCondition>newArrayList();
 
-    var age = 0L;
-    if (daemonSet.getMetadata() != null &&
-      daemonSet.getMetadata().getCreationTimestamp() != null
-    ) {
-      age = System.currentTimeMillis() -
-        daemonSet.getMetadata().getCreationTimestamp().toEpochSecond() * 1000L;
-    }
-
     return DaemonSetStatus.newBuilder()
       .setCurrentNumberScheduled(Optional.ofNullable(status.getCurrentNumberScheduled())
         .orElse(0))
@@ -160,7 +173,6 @@ public final class DaemonSetFactory {
         .orElse(0))
       .setNumberUnavailable(Optional.ofNullable(status.getNumberUnavailable())
         .orElse(0))
-      .setAge(age)
       .setUpdatedRevision(Optional.ofNullable(status.getUpdatedNumberScheduled())
         .map(Object::toString).orElse(""))
       .setCurrentRevision(Optional.ofNullable(status.getObservedGeneration())
@@ -185,25 +197,25 @@ public final class DaemonSetFactory {
       .build();
   }
 
+  private long calculateAge(V1DaemonSet daemonSet) {
+    if (daemonSet.getMetadata() == null ||
+      daemonSet.getMetadata().getCreationTimestamp() == null
+    ) {
+      return 0L;
+    }
+    return System.currentTimeMillis() -
+      daemonSet.getMetadata().getCreationTimestamp().toEpochSecond() * 1000L;
+  }
+
   private List<DaemonSetEvent> assembleDaemonSetEvents(V1DaemonSet daemonSet) {
-    try {
-      var metadata = daemonSet.getMetadata();
-      if (metadata == null) {
-        return Lists.newArrayList();
-      }
-      var namespace = metadata.getNamespace();
-      var name = metadata.getName();
-      var fieldSelector = "involvedObject.kind=DaemonSet,involvedObject.name=" + name;
-      var items = coreApi.listNamespacedEvent(namespace)
-        .fieldSelector(fieldSelector)
-        .execute().getItems();
-      return items.stream()
-        .map(this::assembleDaemonSetEvent)
-        .toList();
-    } catch (Exception exception) {
-      log.processError(exception);
+    var metadata = daemonSet.getMetadata();
+    if (metadata == null) {
       return Lists.newArrayList();
     }
+    return eventIndex.find(metadata.getNamespace(), "DaemonSet",
+        metadata.getName()).stream()
+      .map(this::assembleDaemonSetEvent)
+      .toList();
   }
 
   private DaemonSetEvent assembleDaemonSetEvent(CoreV1Event event) {
@@ -3,6 +3,8 @@ package io.poddeck.agent.daemonset;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.models.V1DaemonSet;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.DaemonSetFindRequest;
@@ -15,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class DaemonSetFindService implements Service<DaemonSetFindRequest> {
   private final AppsV1Api appsApi;
+  private final ResourceCache resourceCache;
   private final DaemonSetFactory daemonSetFactory;
   private final Log log;
 
@@ -23,8 +26,10 @@ public final class DaemonSetFindService implements Service<DaemonSetFindRequest>
     CommunicationClient client, String requestId, DaemonSetFindRequest request
   ) throws Exception {
     try {
-      var daemonSet = appsApi.readNamespacedDaemonSet(request.getDaemonSet(),
-        request.getNamespace()).execute();
+      var daemonSet = resourceCache.find(V1DaemonSet.class,
+        request.getNamespace(), request.getDaemonSet(),
+        () -> appsApi.readNamespacedDaemonSet(request.getDaemonSet(),
+          request.getNamespace()).execute());
       client.send(requestId, DaemonSetFindResponse.newBuilder()
         .setSuccess(true)
         .setDaemonSet(daemonSetFactory.assembleDaemonSet(daemonSet))
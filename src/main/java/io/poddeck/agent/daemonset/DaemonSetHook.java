@@ -23,17 +23,20 @@ public final class DaemonSetHook implements Hook {
 
   @EventHook
   private void applicationLaunch(ApplicationLaunchEvent event) {
-    serviceRepository.register(DaemonSetListRequest.class,
-      daemonSetListService);
-    serviceRepository.register(DaemonSetFindRequest.class,
-      daemonSetFindService);
+    serviceRepository.register(DaemonSetListRequest.class, daemonSetListService,
+      DaemonSetListResponse.getDefaultInstance());
+    serviceRepository.register(DaemonSetFindRequest.class, daemonSetFindService,
+      DaemonSetFindResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(DaemonSetCreateRequest.class,
-      daemonsetCreateService);
+      daemonsetCreateService,
+      DaemonSetCreateResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(DaemonSetDeleteRequest.class,
-      daemonSetDeleteService);
+      daemonSetDeleteService,
+      DaemonSetDeleteResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(DaemonSetRestartRequest.class,
-      daemonSetRestartService);
-    serviceRepository.register(DaemonSetEditRequest.class,
-      daemonSetEditService);
+      daemonSetRestartService,
+      DaemonSetRestartResponse.newBuilder().setSuccess(false).build());
+    serviceRepository.register(DaemonSetEditRequest.class, daemonSetEditService,
+      DaemonSetEditResponse.newBuilder().setSuccess(false).build());
   }
 }
\ No newline at end of file
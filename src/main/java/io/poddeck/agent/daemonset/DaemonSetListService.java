@@ -3,6 +3,8 @@ package io.poddeck.agent.daemonset;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.models.V1DaemonSet;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.DaemonSetListRequest;
@@ -14,17 +16,19 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class DaemonSetListService implements Service<DaemonSetListRequest> {
   private final AppsV1Api appsApi;
+  private final ResourceCache resourceCache;
   private final DaemonSetFactory daemonSetFactory;
 
   @Override
   public void process(
     CommunicationClient client, String requestId, DaemonSetListRequest request
   ) throws Exception {
-    var daemonSetList = appsApi.listDaemonSetForAllNamespaces().execute().getItems();
-    var daemonSets = daemonSetList.stream()
-      .map(daemonSetFactory::assembleDaemonSet).toList();
-    client.send(requestId, DaemonSetListResponse.newBuilder()
-      .addAllItems(daemonSets)
-      .build());
+    var daemonSetList = resourceCache.listPages(V1DaemonSet.class,
+      (limit, continueToken) -> appsApi.listDaemonSetForAllNamespaces()
+        .limit(limit)._continue(continueToken).execute());
+    client.sendList(requestId, daemonSetList,
+      daemonSetFactory::assembleDaemonSetListItem,
+      daemonSets -> DaemonSetListResponse.newBuilder()
+        .addAllItems(daemonSets).build());
   }
 }
@@ -4,10 +4,12 @@ import com.google.api.client.util.Lists;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
-import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.*;
-import io.kubernetes.client.util.Yaml;
+import io.poddeck.agent.cache.MessageCache;
+import io.poddeck.agent.cache.YamlCache;
+import io.poddeck.agent.event.EventIndex;
 import io.poddeck.agent.pod.PodFactory;
+import io.poddeck.agent.replicaset.ReplicaSetOwnerIndex;
 import io.poddeck.common.*;
 import io.poddeck.common.log.Log;
 import lombok.AccessLevel;
@@ -22,18 +24,42 @@ import java.util.stream.Collectors;
 @Singleton
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class DeploymentFactory {
-  private final CoreV1Api coreApi;
+  private final EventIndex eventIndex;
   private final AppsV1Api appsApi;
   private final PodFactory podFactory;
   private final Log log;
+  private final YamlCache yamlCache;
+  private final MessageCache messageCache;
+  private final ReplicaSetOwnerIndex replicaSetOwnerIndex;
 
   public Deployment assembleDeployment(V1Deployment deployment) {
-    return Deployment.newBuilder()
-      .setMetadata(assembleMetadata(deployment))
-      .setSpec(assembleSpec(deployment))
-      .setStatus(assembleStatus(deployment))
+    return assembleDeployment(deployment, true);
+  }
+
+  /**
+   * Assembles a deployment as an item of a list response, which only carries
+   * the raw yaml if configured
+   */
+  public Deployment assembleDeploymentListItem(V1Deployment deployment) {
+    return assembleDeployment(deployment, yamlCache.includeInLists());
+  }
+
+  private Deployment assembleDeployment(V1Deployment deployment, boolean raw) {
+    var cached = messageCache.find(deployment, raw, () -> {
+      var builder = Deployment.newBuilder()
+        .setMetadata(assembleMetadata(deployment))
+        .setSpec(assembleSpec(deployment))
+        .setStatus(assembleStatus(deployment));
+      if (raw) {
+        builder.setRaw(yamlCache.dump(deployment));
+      }
+      return builder.build();
+    });
+    return cached.toBuilder()
+      .setStatus(cached.getStatus().toBuilder()
+        .setAge(calculateAge(deployment))
+        .setReplicaSet(findReplicaSetName(deployment)))
       .addAllEvents(assembleDeploymentEvents(deployment))
-      .setRaw(Yaml.dump(deployment))
       .build();
   }
 
@@ -97,13 +123,6 @@ public final class DeploymentFactory {
       status.getConditions().stream()
         .map(this::assembleDeploymentCondition).toList() :
       Lists.<DeploymentCondition>newArrayList();
-    var age = 0L;
-    if (deployment.getMetadata() != null &&
-      deployment.getMetadata().getCreationTimestamp() != null
-    ) {
-      age = System.currentTimeMillis() -
-        deployment.getMetadata().getCreationTimestamp().toEpochSecond() * 1000L;
-    }
     return DeploymentStatus.newBuilder()
       .setReplicas(Optional.ofNullable(status.getReplicas()).orElse(0))
       .setUpdatedReplicas(Optional.ofNullable(status.getUpdatedReplicas())
@@ -117,9 +136,7 @@ public final class DeploymentFactory {
         .map(Object::toString).orElse(""))
       .setCurrentRevision(Optional.ofNullable(status.getObservedGeneration())
         .map(Object::toString).orElse(""))
-      .setAge(age)
       .addAllConditions(conditions)
-      .setReplicaSet(findReplicaSetName(deployment))
       .build();
   }
 
@@ -139,17 +156,18 @@ public final class DeploymentFactory {
       .build();
   }
 
+  /**
+   * @return The name of the replica set with the highest revision, which is
+   * the one the deployment currently rolls out
+   */
   private String findReplicaSetName(V1Deployment deployment) {
     try {
-      var selector = Optional
-        .ofNullable(deployment.getSpec().getSelector().getMatchLabels())
-        .orElse(Collections.emptyMap()).entrySet().stream()
-        .map(e -> e.getKey() + "=" + e.getValue())
-        .collect(Collectors.joining(","));
-      var list = appsApi
-        .listNamespacedReplicaSet(deployment.getMetadata().getNamespace())
-        .labelSelector(selector).execute().getItems();
-      return list.stream()
+      if (deployment.getMetadata() == null ||
+        deployment.getMetadata().getUid() == null
+      ) {
+        return "";
+      }
+      return findReplicaSets(deployment).stream()
         .filter(rs -> rs.getMetadata() != null)
         .findFirst()
         .map(rs -> rs.getMetadata().getName())
@@ -160,25 +178,42 @@ public final class DeploymentFactory {
     }
   }
 
+  private List<V1ReplicaSet> findReplicaSets(V1Deployment deployment)
+    throws Exception {
+    var uid = deployment.getMetadata().getUid();
+    if (replicaSetOwnerIndex.isReady()) {
+      return replicaSetOwnerIndex.find(uid);
+    }
+    var selector = Optional
+      .ofNullable(deployment.getSpec().getSelector().getMatchLabels())
+      .orElse(Collections.emptyMap()).entrySet().stream()
+      .map(e -> e.getKey() + "=" + e.getValue())
+      .collect(Collectors.joining(","));
+    var list = appsApi
+      .listNamespacedReplicaSet(deployment.getMetadata().getNamespace())
+      .labelSelector(selector).execute().getItems();
+    return ReplicaSetOwnerIndex.sort(uid, list);
+  }
+
+  private long calculateAge(V1Deployment deployment) {
+    if (deployment.getMetadata() == null ||
+      deployment.getMetadata().getCreationTimestamp() == null
+    ) {
+      return 0L;
+    }
+    return System.currentTimeMillis() -
+      deployment.getMetadata().getCreationTimestamp().toEpochSecond() * 1000L;
+  }
+
   private List<DeploymentEvent> assembleDeploymentEvents(V1Deployment deployment) {
-    try {
-      var metadata = deployment.getMetadata();
-      if (metadata == null) {
-        return Lists.newArrayList();
-      }
-      var namespace = metadata.getNamespace();
-      var name = metadata.getName();
-      var fieldSelector = "involvedObject.kind=Deployment,involvedObject.name=" + name;
-      var items = coreApi.listNamespacedEvent(namespace)
-        .fieldSelector(fieldSelector)
-        .execute().getItems();
-      return items.stream()
-        .map(this::assembleDeploymentEvent)
-        .toList();
-    } catch (Exception exception) {
-      log.processError(exception);
+    var metadata = deployment.getMetadata();
+    if (metadata == null) {
       return Lists.newArrayList();
     }
+    return eventIndex.find(metadata.getNamespace(), "Deployment",
+        metadata.getName()).stream()
+      .map(this::assembleDeploymentEvent)
+      .toList();
   }
 
   private DeploymentEvent assembleDeploymentEvent(CoreV1Event event) {
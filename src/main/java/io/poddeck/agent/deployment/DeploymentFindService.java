@@ -3,6 +3,8 @@ package io.poddeck.agent.deployment;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.models.V1Deployment;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.DeploymentFindRequest;
@@ -15,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class DeploymentFindService implements Service<DeploymentFindRequest> {
   private final AppsV1Api appsApi;
+  private final ResourceCache resourceCache;
   private final DeploymentFactory deploymentFactory;
   private final Log log;
 
@@ -23,8 +26,10 @@ public final class DeploymentFindService implements Service<DeploymentFindReques
     CommunicationClient client, String requestId, DeploymentFindRequest request
   ) throws Exception {
     try {
-      var deployment = appsApi.readNamespacedDeployment(request.getDeployment(),
-        request.getNamespace()).execute();
+      var deployment = resourceCache.find(V1Deployment.class,
+        request.getNamespace(), request.getDeployment(),
+        () -> appsApi.readNamespacedDeployment(request.getDeployment(),
+          request.getNamespace()).execute());
       client.send(requestId, DeploymentFindResponse.newBuilder()
         .setSuccess(true)
         .setDeployment(deploymentFactory.assembleDeployment(deployment))
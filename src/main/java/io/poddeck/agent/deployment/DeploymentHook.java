@@ -25,18 +25,24 @@ public final class DeploymentHook implements Hook {
   @EventHook
   private void applicationLaunch(ApplicationLaunchEvent event) {
     serviceRepository.register(DeploymentListRequest.class,
-      deploymentListService);
+      deploymentListService, DeploymentListResponse.getDefaultInstance());
     serviceRepository.register(DeploymentFindRequest.class,
-      deploymentFindService);
+      deploymentFindService,
+      DeploymentFindResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(DeploymentCreateRequest.class,
-      deploymentCreateService);
+      deploymentCreateService,
+      DeploymentCreateResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(DeploymentDeleteRequest.class,
-      deploymentDeleteService);
+      deploymentDeleteService,
+      DeploymentDeleteResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(DeploymentScaleRequest.class,
-      deploymentScaleService);
+      deploymentScaleService,
+      DeploymentScaleResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(DeploymentRestartRequest.class,
-      deploymentRestartService);
+      deploymentRestartService,
+      DeploymentRestartResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(DeploymentEditRequest.class,
-      deploymentEditService);
+      deploymentEditService,
+      DeploymentEditResponse.newBuilder().setSuccess(false).build());
   }
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package io.poddeck.agent.deployment;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.models.V1Deployment;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.DeploymentListRequest;
@@ -14,17 +16,19 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class DeploymentListService implements Service<DeploymentListRequest> {
   private final AppsV1Api appsApi;
+  private final ResourceCache resourceCache;
   private final DeploymentFactory deploymentFactory;
 
   @Override
   public void process(
     CommunicationClient client, String requestId, DeploymentListRequest request
   ) throws Exception {
-    var deploymentList = appsApi.listDeploymentForAllNamespaces().execute().getItems();
-    var deployments = deploymentList.stream()
-      .map(deploymentFactory::assembleDeployment).toList();
-    client.send(requestId, DeploymentListResponse.newBuilder()
-      .addAllItems(deployments)
-      .build());
+    var deploymentList = resourceCache.listPages(V1Deployment.class,
+      (limit, continueToken) -> appsApi.listDeploymentForAllNamespaces()
+        .limit(limit)._continue(continueToken).execute());
+    client.sendList(requestId, deploymentList,
+      deploymentFactory::assembleDeploymentListItem,
+      deployments -> DeploymentListResponse.newBuilder()
+        .addAllItems(deployments).build());
   }
 }
@@ -0,0 +1,110 @@
+package io.poddeck.agent.event;
+
+import com.google.common.collect.Maps;
+import com.google.inject.Singleton;
+import io.kubernetes.client.openapi.models.CoreV1Event;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps all events of the cluster grouped by the object they are about. The
+ * index is fed by the {@link EventWatcher}, so resources can look up their
+ * events without querying the api server
+ */
+@Singleton
+public final class EventIndex {
+  private volatile Map<String, Map<String, CoreV1Event>> events =
+    Maps.newConcurrentMap();
+
+  /**
+   * Replaces the content of the index with the result of a full list
+   * @param items The events of the cluster
+   */
+  public void reset(List<CoreV1Event> items) {
+    Map<String, Map<String, CoreV1Event>> events = Maps.newConcurrentMap();
+    for (var event : items) {
+      add(events, event);
+    }
+    this.events = events;
+  }
+
+  /**
+   * Applies a change received from the event watch
+   * @param type The type of the watch event
+   * @param event The changed event
+   */
+  public void apply(String type, CoreV1Event event) {
+    if (event == null || event.getMetadata() == null) {
+      return;
+    }
+    if ("ADDED".equals(type) || "MODIFIED".equals(type)) {
+      add(events, event);
+    } else if ("DELETED".equals(type)) {
+      remove(events, event);
+    }
+  }
+
+  /**
+   * Finds all events of an object
+   * @param namespace The namespace of the object, empty for cluster scoped objects
+   * @param kind The kind of the object
+   * @param name The name of the object
+   * @return The events of the object
+   */
+  public List<CoreV1Event> find(String namespace, String kind, String name) {
+    if (kind == null || name == null) {
+      return Collections.emptyList();
+    }
+    var objectEvents = events.get(objectKey(namespace, kind, name));
+    if (objectEvents == null) {
+      return Collections.emptyList();
+    }
+    return List.copyOf(objectEvents.values());
+  }
+
+  private void add(
+    Map<String, Map<String, CoreV1Event>> events, CoreV1Event event
+  ) {
+    var objectKey = objectKey(event);
+    if (objectKey == null) {
+      return;
+    }
+    events.computeIfAbsent(objectKey, key -> Maps.newConcurrentMap())
+      .put(eventKey(event), event);
+  }
+
+  private void remove(
+    Map<String, Map<String, CoreV1Event>> events, CoreV1Event event
+  ) {
+    var objectKey = objectKey(event);
+    if (objectKey == null) {
+      return;
+    }
+    events.computeIfPresent(objectKey, (key, objectEvents) -> {
+      objectEvents.remove(eventKey(event));
+      return objectEvents.isEmpty() ? null : objectEvents;
+    });
+  }
+
+  private String objectKey(CoreV1Event event) {
+    var involvedObject = event.getInvolvedObject();
+    if (involvedObject == null || involvedObject.getKind() == null ||
+      involvedObject.getName() == null
+    ) {
+      return null;
+    }
+    return objectKey(involvedObject.getNamespace(), involvedObject.getKind(),
+      involvedObject.getName());
+  }
+
+  private String objectKey(String namespace, String kind, String name) {
+    return (namespace != null ? namespace : "") + "/" + kind + "/" + name;
+  }
+
+  private String eventKey(CoreV1Event event) {
+    return event.getMetadata().getNamespace() + "/" +
+      event.getMetadata().getName();
+  }
+}
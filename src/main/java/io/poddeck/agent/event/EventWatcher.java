@@ -21,6 +21,7 @@ public final class EventWatcher {
   private final ApiClient apiClient;
   private final CoreV1Api coreApi;
   private final CommunicationClient communicationClient;
+  private final EventIndex eventIndex;
   private final Log log;
 
   /*public void watch() {
@@ -50,6 +51,9 @@ public final class EventWatcher {
           if (list != null && list.getMetadata() != null) {
             resourceVersion = list.getMetadata().getResourceVersion();
           }
+          if (list != null) {
+            eventIndex.reset(list.getItems());
+          }
         }
         var call = coreApi.listEventForAllNamespaces().watch(true)
           .resourceVersion(resourceVersion).timeoutSeconds(60).buildCall(null);
@@ -59,6 +63,7 @@ public final class EventWatcher {
           new TypeToken<Watch.Response<CoreV1Event>>() {
           }.getType())) {
           for (Watch.Response<CoreV1Event> event : watch) {
+            eventIndex.apply(event.type, event.object);
             processEvent(event.object);
             if (event.object != null && event.object.getMetadata() != null) {
               resourceVersion = event.object.getMetadata().getResourceVersion();
@@ -11,9 +11,13 @@ import org.apache.commons.configuration2.AbstractConfiguration;
 @RequiredArgsConstructor(staticName = "create")
 public class MetricConfiguration implements Configuration {
   private int intervalSeconds;
+  private int scrapeTimeoutMillis;
+  private int reportDeadlineMillis;
 
   @Override
   public void load(AbstractConfiguration file) {
     intervalSeconds = file.getInt("metric.interval_seconds");
+    scrapeTimeoutMillis = file.getInt("metric.scrape_timeout_millis", 5000);
+    reportDeadlineMillis = file.getInt("metric.report_deadline_millis", 900);
   }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package io.poddeck.agent.metric;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.poddeck.agent.cache.ResourceCache;
+import io.poddeck.agent.telegraf.TelegrafConfiguration;
+import io.poddeck.agent.telegraf.TelegrafMetricBody;
+import io.poddeck.agent.telegraf.TelegrafMetricBodyHandler;
+import io.poddeck.agent.telegraf.TelegrafRequestFactory;
+import io.poddeck.common.Metric;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scrapes the telegraf instances of all nodes. The instances are taken from
+ * the resource cache, so a round does not query the api server. A telegraf
+ * pod is skipped while its previous scrape is still running and every scrape
+ * is cancelled after the scrape timeout. A round completes at the report
+ * deadline with the latest metric of every node that has answered since the
+ * previous report, so a node that answers after the deadline of its round
+ * is reported with the next round
+ */
+@Singleton
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
+public final class MetricScraper {
+  private final ResourceCache resourceCache;
+  private final CoreV1Api coreApi;
+  private final TelegrafConfiguration telegrafConfiguration;
+  private final TelegrafRequestFactory telegrafRequestFactory;
+  private final MetricConfiguration metricConfiguration;
+  private final Set<String> inFlight = Sets.newConcurrentHashSet();
+  private final Map<String, Metric> completed = Maps.newConcurrentMap();
+
+  private static final Set<String> METRIC_FAMILIES = Set.of("cpu_usage_idle",
+    "mem_total", "mem_used", "mem_used_percent", "disk_total", "disk_used",
+    "disk_used_percent");
+  private static final TelegrafMetricBodyHandler BODY_HANDLER =
+    TelegrafMetricBodyHandler.create(METRIC_FAMILIES);
+
+  /**
+   * Scrapes all nodes whose previous scrape has completed
+   * @return The latest metrics of all nodes that answered since the previous
+   * report, at the latest at the report deadline
+   */
+  public CompletableFuture<List<Metric>> scrape() throws Exception {
+    var scrapes = findTargets().stream()
+      .map(this::scrape)
+      .flatMap(Optional::stream)
+      .toList();
+    return CompletableFuture.allOf(scrapes.toArray(CompletableFuture[]::new))
+      .exceptionally(throwable -> null)
+      .completeOnTimeout(null, metricConfiguration.reportDeadlineMillis(),
+        TimeUnit.MILLISECONDS)
+      .thenApply(ignored -> drainCompleted());
+  }
+
+  private List<Metric> drainCompleted() {
+    var metrics = Lists.<Metric>newArrayList();
+    for (var node : completed.keySet()) {
+      var metric = completed.remove(node);
+      if (metric != null) {
+        metrics.add(metric);
+      }
+    }
+    return metrics;
+  }
+
+  private List<V1Pod> findTargets() throws Exception {
+    var namespace = telegrafConfiguration.namespace();
+    return resourceCache.list(V1Pod.class, namespace,
+        () -> coreApi.listNamespacedPod(namespace).execute().getItems())
+      .stream()
+      .filter(pod -> pod.getSpec() != null &&
+        pod.getSpec().getNodeName() != null && pod.getStatus() != null &&
+        pod.getStatus().getPodIP() != null)
+      .toList();
+  }
+
+  private Optional<CompletableFuture<Metric>> scrape(V1Pod pod) {
+    var node = pod.getSpec().getNodeName();
+    var target = target(pod);
+    if (!inFlight.add(target)) {
+      return Optional.empty();
+    }
+    try {
+      var request = telegrafRequestFactory
+        .create(pod.getStatus().getPodIP(), telegrafConfiguration.port())
+        .send("/metrics", "GET", requestHeaders(), BODY_HANDLER);
+      var scrape = request
+        .thenApply(response -> createMetric(node, response.body()))
+        .orTimeout(metricConfiguration.scrapeTimeoutMillis(),
+          TimeUnit.MILLISECONDS)
+        .whenComplete((metric, throwable) -> {
+          inFlight.remove(target);
+          if (throwable != null) {
+            request.cancel(true);
+            return;
+          }
+          completed.put(node, metric);
+        });
+      return Optional.of(scrape);
+    } catch (Exception exception) {
+      inFlight.remove(target);
+      return Optional.of(CompletableFuture.failedFuture(exception));
+    }
+  }
+
+  /**
+   * @return The key of the telegraf pod, a node might run a second pod while
+   * its previous pod is still scraped
+   */
+  private String target(V1Pod pod) {
+    var metadata = pod.getMetadata();
+    if (metadata == null) {
+      return pod.getStatus().getPodIP();
+    }
+    return Optional.ofNullable(metadata.getUid())
+      .orElse(metadata.getNamespace() + "/" + metadata.getName());
+  }
+
+  private Map<String, String> requestHeaders() {
+    return telegrafConfiguration.compression() ?
+      Map.of("Accept-Encoding", "gzip") : Map.of();
+  }
+
+  private Metric createMetric(String node, TelegrafMetricBody body) {
+    var cpuCores = body.countMetricLines("cpu_usage_idle") - 1;
+    var cpuRatio = 100 - body.extractMetric("cpu_usage_idle", "cpu", "cpu-total");
+    var totalMemory = body.extractMetric("mem_total");
+    var usedMemory = body.extractMetric("mem_used");
+    var memoryRatio = body.extractMetric("mem_used_percent");
+    var totalDiskSpace = body.extractMetric("disk_total", "path", "/");
+    var usedDiskSpace = body.extractMetric("disk_used", "path", "/");
+    var diskSpaceRatio = body.extractMetric("disk_used_percent");
+    return Metric.newBuilder()
+      .setNode(node)
+      .setCpuCores(cpuCores)
+      .setCpuRatio(cpuRatio)
+      .setTotalMemory(byteToGigaByte(totalMemory))
+      .setUsedMemory(byteToGigaByte(usedMemory))
+      .setMemoryRatio(memoryRatio)
+      .setTotalStorage(byteToGigaByte(totalDiskSpace))
+      .setUsedStorage(byteToGigaByte(usedDiskSpace))
+      .setStorageRatio(diskSpaceRatio)
+      .build();
+  }
+
+  private double byteToGigaByte(double value) {
+    return value / 1024 / 1024 / 1024;
+  }
+}
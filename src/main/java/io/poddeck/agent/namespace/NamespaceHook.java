@@ -5,8 +5,11 @@ import com.google.inject.Singleton;
 import io.poddeck.agent.application.ApplicationLaunchEvent;
 import io.poddeck.agent.communication.service.ServiceRepository;
 import io.poddeck.common.NamespaceCreateRequest;
+import io.poddeck.common.NamespaceCreateResponse;
 import io.poddeck.common.NamespaceDeleteRequest;
+import io.poddeck.common.NamespaceDeleteResponse;
 import io.poddeck.common.NamespaceListRequest;
+import io.poddeck.common.NamespaceListResponse;
 import io.poddeck.common.event.EventHook;
 import io.poddeck.common.event.Hook;
 import lombok.AccessLevel;
@@ -22,11 +25,13 @@ public final class NamespaceHook implements Hook {
 
   @EventHook
   private void applicationLaunch(ApplicationLaunchEvent event) {
-    serviceRepository.register(NamespaceListRequest.class,
-      namespaceListService);
+    serviceRepository.register(NamespaceListRequest.class, namespaceListService,
+      NamespaceListResponse.getDefaultInstance());
     serviceRepository.register(NamespaceCreateRequest.class,
-      namespaceCreateService);
+      namespaceCreateService,
+      NamespaceCreateResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(NamespaceDeleteRequest.class,
-      namespaceDeleteService);
+      namespaceDeleteService,
+      NamespaceDeleteResponse.newBuilder().setSuccess(false).build());
   }
 }
\ No newline at end of file
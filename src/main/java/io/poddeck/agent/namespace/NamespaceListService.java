@@ -4,6 +4,7 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.V1Namespace;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.Namespace;
@@ -16,16 +17,19 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class NamespaceListService implements Service<NamespaceListRequest> {
   private final CoreV1Api coreApi;
+  private final ResourceCache resourceCache;
 
   @Override
   public void process(
     CommunicationClient client, String requestId,
     NamespaceListRequest namespaceListRequest
   ) throws Exception {
-    var nodes = coreApi.listNamespace().execute().getItems()
-      .stream().map(this::assembleNamespace).toList();
-    client.send(requestId, NamespaceListResponse.newBuilder()
-      .addAllItems(nodes).build());
+    var namespaceList = resourceCache.listPages(V1Namespace.class,
+      (limit, continueToken) -> coreApi.listNamespace()
+        .limit(limit)._continue(continueToken).execute());
+    client.sendList(requestId, namespaceList, this::assembleNamespace,
+      namespaces -> NamespaceListResponse.newBuilder()
+        .addAllItems(namespaces).build());
   }
 
   private Namespace assembleNamespace(V1Namespace namespace) {
@@ -0,0 +1,49 @@
+package io.poddeck.agent.node;
+
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.poddeck.agent.capacity.Capacity;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * The resources requested by the containers of one or more pods, cpu in
+ * millicores and memory in bytes
+ */
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public final class NodeAllocation {
+  private final long cpu;
+  private final long memory;
+
+  public static final NodeAllocation EMPTY = create(0, 0);
+
+  public static NodeAllocation of(V1Pod pod) {
+    if (pod.getSpec() == null) {
+      return EMPTY;
+    }
+    var cpu = 0L;
+    var memory = 0L;
+    for (var container : pod.getSpec().getContainers()) {
+      var resources = container.getResources();
+      if (resources != null && resources.getRequests() != null) {
+        var requests = Capacity.of(resources.getRequests());
+        cpu += requests.cpu();
+        memory += requests.memory();
+      }
+    }
+    return create(cpu, memory);
+  }
+
+  public static NodeAllocation of(Iterable<V1Pod> pods) {
+    var cpu = 0L;
+    var memory = 0L;
+    for (var pod : pods) {
+      var allocation = of(pod);
+      cpu += allocation.cpu();
+      memory += allocation.memory();
+    }
+    return create(cpu, memory);
+  }
+}
@@ -0,0 +1,130 @@
+package io.poddeck.agent.node;
+
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.poddeck.agent.cache.ResourceCache;
+import io.poddeck.agent.cache.ResourceSyncTracker;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Sums up the resource requests of all pods per node. The sums are updated
+ * with every pod change reported by the {@link ResourceCache}, so reading the
+ * allocation of a node does not require listing its pods. The ledger is
+ * ready once it has processed the initial list of pods
+ */
+@Singleton
+public final class NodeAllocationLedger implements ResourceEventHandler<V1Pod> {
+  private final ResourceSyncTracker<V1Pod> syncTracker;
+  private final Map<String, PodEntry> pods = Maps.newHashMap();
+  private final Map<String, NodeEntry> nodes = Maps.newHashMap();
+
+  @Inject
+  private NodeAllocationLedger(ResourceCache resourceCache) {
+    this.syncTracker = ResourceSyncTracker.create(resourceCache, V1Pod.class);
+  }
+
+  /**
+   * @return Whether the ledger contains all pods of the cluster
+   */
+  public boolean isReady() {
+    return syncTracker.isReady();
+  }
+
+  /**
+   * Finds the resources that are requested on a node
+   * @param node The name of the node
+   * @return The requested resources
+   */
+  public synchronized NodeAllocation find(String node) {
+    var entry = nodes.get(node);
+    if (entry == null) {
+      return NodeAllocation.EMPTY;
+    }
+    return NodeAllocation.create(entry.cpu, entry.memory);
+  }
+
+  @Override
+  public synchronized void onAdd(V1Pod pod) {
+    remove(pod);
+    add(pod);
+    syncTracker.processed(pod);
+  }
+
+  @Override
+  public synchronized void onUpdate(V1Pod oldPod, V1Pod newPod) {
+    remove(oldPod);
+    add(newPod);
+    syncTracker.processed(newPod);
+  }
+
+  @Override
+  public synchronized void onDelete(V1Pod pod, boolean finalStateUnknown) {
+    remove(pod);
+    syncTracker.deleted(pod);
+  }
+
+  private void add(V1Pod pod) {
+    var key = podKey(pod);
+    if (key == null || pod.getSpec() == null ||
+      pod.getSpec().getNodeName() == null
+    ) {
+      return;
+    }
+    var node = pod.getSpec().getNodeName();
+    var allocation = NodeAllocation.of(pod);
+    pods.put(key, new PodEntry(node, allocation.cpu(), allocation.memory()));
+    var entry = nodes.computeIfAbsent(node, name -> new NodeEntry());
+    entry.cpu += allocation.cpu();
+    entry.memory += allocation.memory();
+    entry.pods++;
+  }
+
+  private void remove(V1Pod pod) {
+    var key = podKey(pod);
+    if (key == null) {
+      return;
+    }
+    var podEntry = pods.remove(key);
+    if (podEntry == null) {
+      return;
+    }
+    var entry = nodes.get(podEntry.node);
+    if (entry == null) {
+      return;
+    }
+    entry.cpu -= podEntry.cpu;
+    entry.memory -= podEntry.memory;
+    if (--entry.pods == 0) {
+      nodes.remove(podEntry.node);
+    }
+  }
+
+  private String podKey(V1Pod pod) {
+    var metadata = pod.getMetadata();
+    if (metadata == null) {
+      return null;
+    }
+    if (metadata.getUid() != null) {
+      return metadata.getUid();
+    }
+    return metadata.getNamespace() + "/" + metadata.getName();
+  }
+
+  @RequiredArgsConstructor
+  private static final class PodEntry {
+    private final String node;
+    private final long cpu;
+    private final long memory;
+  }
+
+  private static final class NodeEntry {
+    private long cpu;
+    private long memory;
+    private int pods;
+  }
+}
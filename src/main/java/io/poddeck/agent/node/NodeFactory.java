@@ -6,6 +6,7 @@ import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.V1Node;
 import io.poddeck.agent.capacity.Capacity;
+import io.poddeck.agent.event.EventIndex;
 import io.poddeck.common.*;
 import io.poddeck.common.log.Log;
 import lombok.AccessLevel;
@@ -19,6 +20,8 @@ import java.util.List;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class NodeFactory {
   private final CoreV1Api coreApi;
+  private final EventIndex eventIndex;
+  private final NodeAllocationLedger nodeAllocationLedger;
   private final Log log;
 
   public Node assembleNode(V1Node node) {
@@ -74,29 +77,12 @@ public final class NodeFactory {
         return NodeCapacity.newBuilder().build();
       }
       var capacity = Capacity.of(node.getStatus().getCapacity());
-      var pods = coreApi.listPodForAllNamespaces()
-        .fieldSelector("spec.nodeName=" + node.getMetadata().getName())
-        .execute().getItems();
-      var cpuAllocated = 0L;
-      var memoryAllocated = 0L;
-      for (var pod : pods) {
-        if (pod.getSpec() == null) {
-          continue;
-        }
-        for (var container : pod.getSpec().getContainers()) {
-          var resources = container.getResources();
-          if (resources != null && resources.getRequests() != null) {
-            var requests = Capacity.of(resources.getRequests());
-            cpuAllocated += requests.cpu();
-            memoryAllocated += requests.memory();
-          }
-        }
-      }
+      var allocation = findAllocation(node.getMetadata().getName());
       return NodeCapacity.newBuilder()
         .setTotalCpu(capacity.cpu())
         .setTotalMemory(capacity.memory())
-        .setAllocatedCpu(cpuAllocated)
-        .setAllocatedMemory(memoryAllocated)
+        .setAllocatedCpu(allocation.cpu())
+        .setAllocatedMemory(allocation.memory())
         .build();
     } catch (Exception exception) {
       log.processError(exception);
@@ -104,6 +90,16 @@ public final class NodeFactory {
     }
   }
 
+  private NodeAllocation findAllocation(String node) throws Exception {
+    if (nodeAllocationLedger.isReady()) {
+      return nodeAllocationLedger.find(node);
+    }
+    var pods = coreApi.listPodForAllNamespaces()
+      .fieldSelector("spec.nodeName=" + node)
+      .execute().getItems();
+    return NodeAllocation.of(pods);
+  }
+
   private NodeInfo assembleNodeInfo(V1Node node) {
     if (node.getStatus().getNodeInfo() == null) {
       return NodeInfo.newBuilder().build();
@@ -135,28 +131,19 @@ public final class NodeFactory {
   }
 
   private List<NodeEvent> assembleNodeEvents(V1Node node) {
-    try {
-      if (node.getMetadata() == null || node.getMetadata().getName() == null) {
-        return Lists.newArrayList();
-      }
-      var events = coreApi.listEventForAllNamespaces()
-        .fieldSelector("involvedObject.name=" + node.getMetadata().getName() +
-          ",involvedObject.kind=Node")
-        .execute().getItems();
-      return events.stream()
-        .map(event -> NodeEvent.newBuilder()
-          .setType(event.getType() != null ? event.getType() : "")
-          .setReason(event.getReason() != null ? event.getReason() : "")
-          .setMessage(event.getMessage() != null ? event.getMessage() : "")
-          .setTimestamp(toEpochSeconds(event.getLastTimestamp()))
-          .setSource(event.getSource() != null && event.getSource().getComponent() != null ?
-            event.getSource().getComponent() : "")
-          .build())
-        .toList();
-    } catch (Exception exception) {
-      log.processError(exception);
+    if (node.getMetadata() == null || node.getMetadata().getName() == null) {
       return Lists.newArrayList();
     }
+    return eventIndex.find("", "Node", node.getMetadata().getName()).stream()
+      .map(event -> NodeEvent.newBuilder()
+        .setType(event.getType() != null ? event.getType() : "")
+        .setReason(event.getReason() != null ? event.getReason() : "")
+        .setMessage(event.getMessage() != null ? event.getMessage() : "")
+        .setTimestamp(toEpochSeconds(event.getLastTimestamp()))
+        .setSource(event.getSource() != null && event.getSource().getComponent() != null ?
+          event.getSource().getComponent() : "")
+        .build())
+      .toList();
   }
 
   private long calculateAge(V1Node node) {
@@ -3,6 +3,8 @@ package io.poddeck.agent.node;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.NodeFindRequest;
@@ -15,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class NodeFindService implements Service<NodeFindRequest> {
   private final CoreV1Api coreApi;
+  private final ResourceCache resourceCache;
   private final NodeFactory nodeFactory;
   private final Log log;
 
@@ -23,7 +26,8 @@ public final class NodeFindService implements Service<NodeFindRequest> {
     CommunicationClient client, String requestId, NodeFindRequest request
   ) throws Exception {
     try {
-      var node = coreApi.readNode(request.getName()).execute();
+      var node = resourceCache.find(V1Node.class, "", request.getName(),
+        () -> coreApi.readNode(request.getName()).execute());
       client.send(requestId, NodeFindResponse.newBuilder()
         .setSuccess(true).setNode(nodeFactory.assembleNode(node)).build());
     } catch (Exception exception) {
@@ -2,10 +2,14 @@ package io.poddeck.agent.node;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import io.kubernetes.client.openapi.models.V1Pod;
 import io.poddeck.agent.application.ApplicationLaunchEvent;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.service.ServiceRepository;
 import io.poddeck.common.NodeFindRequest;
+import io.poddeck.common.NodeFindResponse;
 import io.poddeck.common.NodeListRequest;
+import io.poddeck.common.NodeListResponse;
 import io.poddeck.common.event.EventHook;
 import io.poddeck.common.event.Hook;
 import lombok.AccessLevel;
@@ -15,12 +19,17 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class NodeHook implements Hook {
   private final ServiceRepository serviceRepository;
+  private final ResourceCache resourceCache;
+  private final NodeAllocationLedger nodeAllocationLedger;
   private final NodeListService nodeListService;
   private final NodeFindService nodeFindService;
 
   @EventHook
   private void applicationLaunch(ApplicationLaunchEvent event) {
-    serviceRepository.register(NodeListRequest.class, nodeListService);
-    serviceRepository.register(NodeFindRequest.class, nodeFindService);
+    serviceRepository.register(NodeListRequest.class, nodeListService,
+      NodeListResponse.getDefaultInstance());
+    serviceRepository.register(NodeFindRequest.class, nodeFindService,
+      NodeFindResponse.newBuilder().setSuccess(false).build());
+    resourceCache.addEventHandler(V1Pod.class, nodeAllocationLedger);
   }
 }
\ No newline at end of file
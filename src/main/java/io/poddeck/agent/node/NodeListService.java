@@ -3,6 +3,8 @@ package io.poddeck.agent.node;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.NodeListRequest;
@@ -14,15 +16,17 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class NodeListService implements Service<NodeListRequest> {
   private final CoreV1Api coreApi;
+  private final ResourceCache resourceCache;
   private final NodeFactory nodeFactory;
 
   @Override
   public void process(
     CommunicationClient client, String requestId, NodeListRequest request
   ) throws Exception {
-    var nodes = coreApi.listNode().execute().getItems()
-      .stream().map(nodeFactory::assembleNode).toList();
-    client.send(requestId, NodeListResponse.newBuilder()
-      .addAllItems(nodes).build());
+    var nodeList = resourceCache.listPages(V1Node.class,
+      (limit, continueToken) -> coreApi.listNode()
+        .limit(limit)._continue(continueToken).execute());
+    client.sendList(requestId, nodeList, nodeFactory::assembleNode,
+      nodes -> NodeListResponse.newBuilder().addAllItems(nodes).build());
   }
 }
\ No newline at end of file
@@ -3,11 +3,11 @@ package io.poddeck.agent.pod;
 import com.google.api.client.util.Lists;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.*;
+import io.poddeck.agent.cache.MessageCache;
 import io.poddeck.agent.capacity.Capacity;
+import io.poddeck.agent.event.EventIndex;
 import io.poddeck.common.*;
-import io.poddeck.common.log.Log;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 
@@ -19,14 +19,17 @@ import java.util.stream.Collectors;
 @Singleton
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class PodFactory {
-  private final CoreV1Api coreApi;
-  private final Log log;
+  private final EventIndex eventIndex;
+  private final MessageCache messageCache;
 
   public Pod assemblePod(V1Pod pod) {
-    return Pod.newBuilder()
+    var cached = messageCache.find(pod, false, () -> Pod.newBuilder()
       .setMetadata(assemblePodMetadata(pod))
       .setSpec(assemblePodSpec(pod))
       .setStatus(assemblePodStatus(pod))
+      .build());
+    return cached.toBuilder()
+      .setStatus(cached.getStatus().toBuilder().setAge(calculateAge(pod)))
       .addAllEvents(assemblePodEvents(pod))
       .build();
   }
@@ -110,23 +113,27 @@ public final class PodFactory {
     var statuses = status.getContainerStatuses() != null ?
       status.getContainerStatuses().stream().map(this::assemblePodContainerStatus).toList() :
       Lists.<PodContainerStatus>newArrayList();
-    var age = 0L;
-    if (pod.getMetadata() != null && pod.getMetadata().getCreationTimestamp() != null) {
-      age = (System.currentTimeMillis() -
-        pod.getMetadata().getCreationTimestamp().toEpochSecond() * 1000);
-    }
     return PodStatus.newBuilder()
       .setPhase(status.getPhase() != null ? status.getPhase() : "")
       .addAllConditions(conditions)
       .addAllStatuses(statuses)
       .setHostIp(status.getHostIP() != null ? status.getHostIP() : "")
       .setPodIp(status.getPodIP() != null ? status.getPodIP() : "")
-      .setAge(age)
       .setNode(pod.getSpec() != null && pod.getSpec().getNodeName() != null ?
         pod.getSpec().getNodeName() : "")
       .build();
   }
 
+  private long calculateAge(V1Pod pod) {
+    if (pod.getMetadata() == null ||
+      pod.getMetadata().getCreationTimestamp() == null
+    ) {
+      return 0L;
+    }
+    return System.currentTimeMillis() -
+      pod.getMetadata().getCreationTimestamp().toEpochSecond() * 1000;
+  }
+
   private PodCondition assemblePodCondition(V1PodCondition condition) {
     return PodCondition.newBuilder()
       .setType(condition.getType())
@@ -163,24 +170,14 @@ public final class PodFactory {
   }
 
   private List<PodEvent> assemblePodEvents(V1Pod pod) {
-    try {
-      var metadata = pod.getMetadata();
-      if (metadata == null || metadata.getNamespace() == null ||
-        metadata.getName() == null
-      ) {
-        return Collections.emptyList();
-      }
-      var namespace = metadata.getNamespace();
-      var name = metadata.getName();
-      var fieldSelector = "involvedObject.kind=Pod,involvedObject.name=" + name;
-      var eventList = coreApi.listNamespacedEvent(namespace)
-        .fieldSelector(fieldSelector).execute().getItems();
-      return eventList.stream()
-        .map(this::assemblePodEvent).toList();
-    } catch (Exception exception) {
-      log.processError(exception);
+    var metadata = pod.getMetadata();
+    if (metadata == null) {
       return Lists.newArrayList();
     }
+    return eventIndex.find(metadata.getNamespace(), "Pod",
+        metadata.getName()).stream()
+      .map(this::assemblePodEvent)
+      .toList();
   }
 
   private PodEvent assemblePodEvent(CoreV1Event event) {
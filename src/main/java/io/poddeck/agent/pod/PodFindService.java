@@ -3,6 +3,8 @@ package io.poddeck.agent.pod;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.PodFindRequest;
@@ -15,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class PodFindService implements Service<PodFindRequest> {
   private final CoreV1Api coreApi;
+  private final ResourceCache resourceCache;
   private final PodFactory podFactory;
   private final Log log;
 
@@ -23,8 +26,9 @@ public final class PodFindService implements Service<PodFindRequest> {
     CommunicationClient client, String requestId, PodFindRequest request
   ) throws Exception {
     try {
-      var pod = coreApi.readNamespacedPod(request.getPod(), request.getNamespace())
-        .execute();
+      var pod = resourceCache.find(V1Pod.class, request.getNamespace(),
+        request.getPod(), () -> coreApi.readNamespacedPod(request.getPod(),
+          request.getNamespace()).execute());
       client.send(requestId, PodFindResponse.newBuilder()
         .setSuccess(true)
         .setPod(podFactory.assemblePod(pod))
@@ -5,9 +5,13 @@ import com.google.inject.Singleton;
 import io.poddeck.agent.application.ApplicationLaunchEvent;
 import io.poddeck.agent.communication.service.ServiceRepository;
 import io.poddeck.common.PodDeleteRequest;
+import io.poddeck.common.PodDeleteResponse;
 import io.poddeck.common.PodFindRequest;
+import io.poddeck.common.PodFindResponse;
 import io.poddeck.common.PodListRequest;
+import io.poddeck.common.PodListResponse;
 import io.poddeck.common.PodLogRequest;
+import io.poddeck.common.PodLogResponse;
 import io.poddeck.common.event.EventHook;
 import io.poddeck.common.event.Hook;
 import lombok.AccessLevel;
@@ -24,9 +28,13 @@ public final class PodHook implements Hook {
 
   @EventHook
   private void applicationLaunch(ApplicationLaunchEvent event) {
-    serviceRepository.register(PodListRequest.class, podListService);
-    serviceRepository.register(PodFindRequest.class, podFindService);
-    serviceRepository.register(PodDeleteRequest.class, podDeleteService);
-    serviceRepository.register(PodLogRequest.class, podLogService);
+    serviceRepository.register(PodListRequest.class, podListService,
+      PodListResponse.getDefaultInstance());
+    serviceRepository.register(PodFindRequest.class, podFindService,
+      PodFindResponse.newBuilder().setSuccess(false).build());
+    serviceRepository.register(PodDeleteRequest.class, podDeleteService,
+      PodDeleteResponse.newBuilder().setSuccess(false).build());
+    serviceRepository.register(PodLogRequest.class, podLogService,
+      PodLogResponse.getDefaultInstance());
   }
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package io.poddeck.agent.pod;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.PodListRequest;
@@ -14,16 +16,17 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class PodListService implements Service<PodListRequest> {
   private final CoreV1Api coreApi;
+  private final ResourceCache resourceCache;
   private final PodFactory podFactory;
 
   @Override
   public void process(
     CommunicationClient client, String requestId, PodListRequest request
   ) throws Exception {
-    var podList = coreApi.listPodForAllNamespaces().execute().getItems();
-    var pods = podList.stream().map(podFactory::assemblePod).toList();
-    client.send(requestId, PodListResponse.newBuilder()
-      .addAllItems(pods)
-      .build());
+    var podList = resourceCache.listPages(V1Pod.class,
+      (limit, continueToken) -> coreApi.listPodForAllNamespaces()
+        .limit(limit)._continue(continueToken).execute());
+    client.sendList(requestId, podList, podFactory::assemblePod,
+      pods -> PodListResponse.newBuilder().addAllItems(pods).build());
   }
 }
@@ -0,0 +1,484 @@
+package io.poddeck.agent.pod;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Container;
+import io.kubernetes.client.openapi.models.V1DaemonSet;
+import io.kubernetes.client.openapi.models.V1Deployment;
+import io.kubernetes.client.openapi.models.V1LabelSelector;
+import io.kubernetes.client.openapi.models.V1LabelSelectorRequirement;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1StatefulSet;
+import io.poddeck.agent.cache.ResourceCache;
+import io.poddeck.agent.communication.CommunicationClient;
+import io.poddeck.agent.communication.service.RequestContext;
+import io.poddeck.common.PodLogRequest;
+import io.poddeck.common.PodLogResponse;
+import io.poddeck.common.log.Log;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import okhttp3.Call;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates the logs of all containers of the pods of a workload. Every
+ * container log is read on its own virtual thread into a bounded buffer, the
+ * buffers are merged by the timestamps of their lines and every line is
+ * marked with its pod and container. The pods are selected by the match
+ * labels and the match expressions of the workload. At most
+ * aggregate_max_streams container logs are read, a truncated log starts with
+ * a note saying so. Every container log is filtered on its own by the
+ * {@link PodLogFilter} of the request, so context lines stay with their
+ * container. The merged log is sent in chunks and its end is signaled by an
+ * empty chunk. Without follow mode all logs end, so
+ * the merge is exact. In follow mode a line is held back until every log has
+ * a newer line or until the merge lag has passed, so an idle container does
+ * not stall the others. A followed log runs as a stream outside of the
+ * concurrency and deadline of its service and counts as one of the
+ * {@link PodLogStreams}
+ */
+@Singleton
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
+final class PodLogAggregator {
+  private final ApiClient apiClient;
+  private final CoreV1Api coreApi;
+  private final AppsV1Api appsApi;
+  private final ResourceCache resourceCache;
+  private final PodLogConfiguration configuration;
+  private final PodLogStreams podLogStreams;
+  private final Log log;
+  private final ExecutorService executor =
+    Executors.newVirtualThreadPerTaskExecutor();
+
+  private static final Comparator<Head> OLDEST_FIRST = Comparator
+    .comparingLong((Head head) -> head.line().timestamp())
+    .thenComparingInt(head -> head.stream().index());
+
+  /**
+   * @param workload The workload, like deployment/name
+   * @return Whether the pod of a log request names a workload
+   */
+  static boolean isWorkload(String workload) {
+    return workload.contains("/");
+  }
+
+  void aggregate(
+    CommunicationClient client, String requestId, PodLogRequest request,
+    PodLogOptions options
+  ) throws Exception {
+    var selector = findSelector(request.getNamespace(), request.getPod());
+    var streams = Lists.<LogStream>newArrayList();
+    var truncated = false;
+    for (var pod : findPods(request.getNamespace(), selector)) {
+      for (var container : findContainers(pod, request.getContainer())) {
+        if (streams.size() >= configuration.aggregateMaxStreams()) {
+          truncated = true;
+          break;
+        }
+        streams.add(LogStream.create(streams.size(),
+          pod.getMetadata().getName(), container,
+          new ArrayBlockingQueue<>(Math.max(1,
+            configuration.mergeBufferLines()))));
+      }
+      if (truncated) {
+        break;
+      }
+    }
+    var logs = new StringBuilder();
+    if (truncated) {
+      logs.append("[poddeck] Only the logs of the first ")
+        .append(streams.size())
+        .append(" containers are shown, the log is truncated\n");
+    }
+    var signal = new Semaphore(0);
+    var context = RequestContext.current();
+    if (options.follow()) {
+      podLogStreams.open();
+      context.ifPresent(RequestContext::stream);
+    }
+    try {
+      for (var stream : streams) {
+        executor.execute(() -> read(context, request, options, stream,
+          signal));
+      }
+      merge(client, requestId, streams, signal, logs, options.follow());
+    } finally {
+      for (var stream : streams) {
+        stream.cancel();
+      }
+      if (options.follow()) {
+        podLogStreams.close();
+      }
+    }
+  }
+
+  private void merge(
+    CommunicationClient client, String requestId, List<LogStream> streams,
+    Semaphore signal, StringBuilder logs, boolean follow
+  ) throws InterruptedException {
+    var heads = new PriorityQueue<>(OLDEST_FIRST);
+    var pending = Lists.newLinkedList(streams);
+    while (true) {
+      signal.drainPermits();
+      var iterator = pending.iterator();
+      while (iterator.hasNext()) {
+        var stream = iterator.next();
+        var line = stream.lines().poll();
+        if (line == null) {
+          continue;
+        }
+        iterator.remove();
+        if (line != LogLine.END) {
+          heads.add(Head.create(line, stream));
+        }
+      }
+      if (heads.isEmpty() && pending.isEmpty()) {
+        break;
+      }
+      if (!heads.isEmpty() && (pending.isEmpty() || (follow &&
+        System.nanoTime() - heads.peek().line().receivedAt() >=
+          TimeUnit.MILLISECONDS.toNanos(configuration.mergeLagMillis())))
+      ) {
+        var head = heads.poll();
+        logs.append(head.line().text()).append('\n');
+        pending.add(head.stream());
+        if (logs.length() >= configuration.chunkBytes()) {
+          send(client, requestId, logs);
+        }
+        continue;
+      }
+      if (follow && !logs.isEmpty()) {
+        send(client, requestId, logs);
+      }
+      signal.tryAcquire(Math.max(1, configuration.mergeLagMillis()),
+        TimeUnit.MILLISECONDS);
+    }
+    if (!logs.isEmpty()) {
+      send(client, requestId, logs);
+    }
+    client.send(requestId, PodLogResponse.newBuilder().build());
+  }
+
+  private void send(
+    CommunicationClient client, String requestId, StringBuilder logs
+  ) {
+    client.send(requestId, PodLogResponse.newBuilder()
+      .setLogs(logs.toString()).build());
+    logs.setLength(0);
+  }
+
+  private void read(
+    Optional<RequestContext> context, PodLogRequest request,
+    PodLogOptions options, LogStream stream, Semaphore signal
+  ) {
+    try {
+      if (context.isPresent()) {
+        context.get().supply(() -> {
+          readLines(request, options, stream, signal);
+          return null;
+        });
+      } else {
+        readLines(request, options, stream, signal);
+      }
+    } catch (Exception exception) {
+      if (!stream.cancelled() &&
+        !context.map(RequestContext::isCancelled).orElse(false)
+      ) {
+        log.processError(exception);
+      }
+    } finally {
+      stream.finish();
+      signal.release();
+    }
+  }
+
+  private void readLines(
+    PodLogRequest request, PodLogOptions options, LogStream stream,
+    Semaphore signal
+  ) {
+    try {
+      var call = open(request, options, stream);
+      if (!stream.attach(call)) {
+        return;
+      }
+      try (var response = call.execute()) {
+        if (!response.isSuccessful() || response.body() == null) {
+          throw new IOException("Failed to read log of " + stream.pod() +
+            "/" + stream.container() + ": " + response.code());
+        }
+        var reader = new BufferedReader(new InputStreamReader(
+          response.body().byteStream(), StandardCharsets.UTF_8));
+        var filter = PodLogFilter.of(options);
+        var timestamp = new long[1];
+        String line;
+        while ((line = reader.readLine()) != null && !stream.cancelled()) {
+          filter.filter(line, match -> {
+            timestamp[0] = parseTimestamp(match, timestamp[0]);
+            stream.put(LogLine.create(timestamp[0], System.nanoTime(),
+              label(match, stream)));
+            signal.release();
+          });
+        }
+      }
+    } catch (SocketTimeoutException exception) {
+      // The container has been idle for too long, its log ends like any other
+    } catch (Exception exception) {
+      throw new IllegalStateException(exception);
+    }
+  }
+
+  private Call open(
+    PodLogRequest request, PodLogOptions options, LogStream stream
+  ) throws Exception {
+    var builder = coreApi
+      .readNamespacedPodLog(stream.pod(), request.getNamespace())
+      .container(stream.container())
+      .timestamps(true);
+    if (request.getSinceSeconds() > 0) {
+      builder = builder.sinceSeconds(request.getSinceSeconds());
+    }
+    if (!options.follow()) {
+      return builder
+        .tailLines(PodLogCache.TAIL_LINES)
+        .limitBytes(PodLogCache.LIMIT_BYTES)
+        .buildCall(null);
+    }
+    var httpClient = apiClient.getHttpClient().newBuilder()
+      .readTimeout(Duration.ofSeconds(configuration.idleTimeoutSeconds()))
+      .build();
+    return httpClient.newCall(builder
+      .tailLines(configuration.followTailLines())
+      .follow(true)
+      .buildCall(null)
+      .request());
+  }
+
+  /**
+   * @return The timestamp of the line in nanos, the previous timestamp of the
+   * log if the line has none
+   */
+  private long parseTimestamp(String line, long previous) {
+    var space = line.indexOf(' ');
+    if (space <= 0) {
+      return previous;
+    }
+    try {
+      var instant = Instant.parse(line.substring(0, space));
+      return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    } catch (DateTimeParseException exception) {
+      return previous;
+    }
+  }
+
+  private String label(String line, LogStream stream) {
+    var space = line.indexOf(' ');
+    var prefix = "[" + stream.pod() + "/" + stream.container() + "] ";
+    if (space <= 0) {
+      return prefix + line;
+    }
+    return line.substring(0, space + 1) + prefix + line.substring(space + 1);
+  }
+
+  private V1LabelSelector findSelector(String namespace, String workload)
+    throws Exception {
+    var separator = workload.indexOf('/');
+    var kind = workload.substring(0, separator).toLowerCase(Locale.ROOT);
+    var name = workload.substring(separator + 1);
+    var selector = switch (kind) {
+      case "deployment", "deployments", "deploy" -> resourceCache.find(
+          V1Deployment.class, namespace, name,
+          () -> appsApi.readNamespacedDeployment(name, namespace).execute())
+        .getSpec().getSelector();
+      case "statefulset", "statefulsets", "sts" -> resourceCache.find(
+          V1StatefulSet.class, namespace, name,
+          () -> appsApi.readNamespacedStatefulSet(name, namespace).execute())
+        .getSpec().getSelector();
+      case "daemonset", "daemonsets", "ds" -> resourceCache.find(
+          V1DaemonSet.class, namespace, name,
+          () -> appsApi.readNamespacedDaemonSet(name, namespace).execute())
+        .getSpec().getSelector();
+      default -> throw new IllegalArgumentException(
+        "Unsupported workload " + workload);
+    };
+    if (selector == null || (isEmpty(selector.getMatchLabels()) &&
+      isEmpty(selector.getMatchExpressions()))
+    ) {
+      throw new IllegalArgumentException("Workload " + workload +
+        " has no selector");
+    }
+    return selector;
+  }
+
+  private List<V1Pod> findPods(String namespace, V1LabelSelector selector)
+    throws Exception {
+    return resourceCache.list(V1Pod.class, namespace,
+        () -> coreApi.listNamespacedPod(namespace).execute().getItems())
+      .stream()
+      .filter(pod -> pod.getMetadata() != null &&
+        matches(selector, Optional.ofNullable(pod.getMetadata().getLabels())
+          .orElse(Collections.emptyMap())))
+      .sorted(Comparator.comparing(pod -> pod.getMetadata().getName()))
+      .toList();
+  }
+
+  /**
+   * @return Whether the labels match both the labels and the expressions of
+   * the selector
+   * @throws IllegalArgumentException If an expression has an unknown operator
+   */
+  private boolean matches(
+    V1LabelSelector selector, Map<String, String> labels
+  ) {
+    if (!isEmpty(selector.getMatchLabels()) && !labels.entrySet()
+      .containsAll(selector.getMatchLabels().entrySet())
+    ) {
+      return false;
+    }
+    if (isEmpty(selector.getMatchExpressions())) {
+      return true;
+    }
+    for (var expression : selector.getMatchExpressions()) {
+      if (!matches(expression, labels)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean matches(
+    V1LabelSelectorRequirement expression, Map<String, String> labels
+  ) {
+    var value = labels.get(expression.getKey());
+    var values = Optional.ofNullable(expression.getValues())
+      .orElse(Collections.emptyList());
+    var operator = Optional.ofNullable(expression.getOperator()).orElse("");
+    return switch (operator) {
+      case "In" -> value != null && values.contains(value);
+      case "NotIn" -> value == null || !values.contains(value);
+      case "Exists" -> value != null;
+      case "DoesNotExist" -> value == null;
+      default -> throw new IllegalArgumentException(
+        "Unsupported selector operator " + operator);
+    };
+  }
+
+  private boolean isEmpty(Map<?, ?> map) {
+    return map == null || map.isEmpty();
+  }
+
+  private boolean isEmpty(List<?> list) {
+    return list == null || list.isEmpty();
+  }
+
+  private List<String> findContainers(V1Pod pod, String container) {
+    if (!container.isEmpty()) {
+      return List.of(container);
+    }
+    if (pod.getSpec() == null) {
+      return Collections.emptyList();
+    }
+    return pod.getSpec().getContainers().stream()
+      .map(V1Container::getName)
+      .toList();
+  }
+
+  @Getter
+  @Accessors(fluent = true)
+  @RequiredArgsConstructor(staticName = "create")
+  private static final class LogLine {
+    private final long timestamp;
+    private final long receivedAt;
+    private final String text;
+
+    private static final LogLine END = create(Long.MAX_VALUE, 0, "");
+  }
+
+  @Getter
+  @Accessors(fluent = true)
+  @RequiredArgsConstructor(staticName = "create")
+  private static final class Head {
+    private final LogLine line;
+    private final LogStream stream;
+  }
+
+  @Getter
+  @Accessors(fluent = true)
+  @RequiredArgsConstructor(staticName = "create")
+  private static final class LogStream {
+    private final int index;
+    private final String pod;
+    private final String container;
+    private final BlockingQueue<LogLine> lines;
+
+    private static final long PUT_INTERVAL = 100L;
+    private Call call;
+    private volatile boolean cancelled = false;
+
+    private synchronized boolean attach(Call call) {
+      this.call = call;
+      return !cancelled;
+    }
+
+    /**
+     * Waits until the merge has taken enough lines out of the buffer
+     * @return Whether the line was added, false if the stream was cancelled
+     */
+    private boolean put(LogLine line) {
+      try {
+        while (!lines.offer(line, PUT_INTERVAL, TimeUnit.MILLISECONDS)) {
+          if (cancelled) {
+            return false;
+          }
+        }
+        return true;
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    /**
+     * Marks the end of the log
+     */
+    private void finish() {
+      if (!cancelled) {
+        put(LogLine.END);
+      }
+    }
+
+    private synchronized void cancel() {
+      cancelled = true;
+      if (call != null) {
+        call.cancel();
+      }
+      lines.clear();
+    }
+  }
+}
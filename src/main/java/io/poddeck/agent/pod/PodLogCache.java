@@ -0,0 +1,355 @@
+package io.poddeck.agent.pod;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.poddeck.common.PodLogRequest;
+import io.poddeck.common.log.Log;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import okhttp3.Call;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the logs of recently viewed containers in {@link PodLogRing}s, so
+ * viewing a log again does not download it from the kubelet again. After a
+ * log was read, a follow stream appends every new line to its ring. Rings
+ * are evicted least recently viewed first once the memory budget is used
+ * up, or when they have not been viewed for the cache ttl. A ring whose
+ * follow stream has ended is no longer used until the log is read again.
+ * Only a limited amount of logs is followed at once, a log that is read
+ * while all follow streams are in use is not cached. The cache is disabled
+ * unless a memory budget is configured
+ */
+@Singleton
+final class PodLogCache {
+  private final ApiClient apiClient;
+  private final CoreV1Api coreApi;
+  private final PodLogConfiguration configuration;
+  private final Log log;
+  private final Map<String, Entry> entries =
+    new LinkedHashMap<>(16, 0.75F, true);
+  private final ExecutorService executor =
+    Executors.newVirtualThreadPerTaskExecutor();
+  private final Semaphore followStreams;
+  private long usedBytes = 0;
+
+  static final int TAIL_LINES = 10_000;
+  static final int LIMIT_BYTES = 2_000_000;
+
+  @Inject
+  private PodLogCache(
+    ApiClient apiClient, CoreV1Api coreApi, PodLogConfiguration configuration,
+    Log log
+  ) {
+    this.apiClient = apiClient;
+    this.coreApi = coreApi;
+    this.configuration = configuration;
+    this.log = log;
+    followStreams = new Semaphore(
+      Math.max(0, configuration.cacheMaxFollowStreams()));
+  }
+
+  boolean isEnabled() {
+    return configuration.cacheRingBytes() > 0 &&
+      configuration.cacheBudgetBytes() >= configuration.cacheRingBytes() &&
+      configuration.cacheMaxFollowStreams() > 0;
+  }
+
+  /**
+   * Finds the log of a request in the cache
+   * @param request The request
+   * @return The log, empty if the cache does not hold all requested lines
+   */
+  Optional<String> find(PodLogRequest request) {
+    if (!isEnabled()) {
+      return Optional.empty();
+    }
+    Entry entry;
+    synchronized (this) {
+      expire();
+      entry = entries.get(key(request));
+      if (entry == null || !entry.warm()) {
+        return Optional.empty();
+      }
+      entry.touch();
+    }
+    var since = since(request);
+    return entry.ring().read(since).map(logs -> select(logs, since));
+  }
+
+  /**
+   * Fills the ring of a container with a log that was read from the kubelet
+   * and starts to follow the log, the log is dropped again if all follow
+   * streams are in use
+   * @param request The request the log was read for
+   * @param logs The log
+   * @param readAt The time in millis at which reading the log has started
+   */
+  void store(PodLogRequest request, String logs, long readAt) {
+    if (!isEnabled()) {
+      return;
+    }
+    var key = key(request);
+    Entry entry;
+    synchronized (this) {
+      expire();
+      entry = entries.get(key);
+      if (entry == null) {
+        while (!entries.isEmpty() && usedBytes +
+          configuration.cacheRingBytes() > configuration.cacheBudgetBytes()
+        ) {
+          evict(entries.keySet().iterator().next());
+        }
+        entry = Entry.create(request.getNamespace(), request.getPod(),
+          request.getContainer(),
+          PodLogRing.create(configuration.cacheRingBytes()));
+        entries.put(key, entry);
+        usedBytes += entry.ring().capacity();
+      }
+      entry.touch();
+    }
+    entry.ring().reset(logs, coveredFrom(logs, since(request)));
+    if (!entry.startFollowing()) {
+      return;
+    }
+    if (!followStreams.tryAcquire()) {
+      entry.stopFollowing();
+      synchronized (this) {
+        if (entries.remove(key, entry)) {
+          release(entry);
+        }
+      }
+      return;
+    }
+    var follow = entry;
+    executor.execute(() -> follow(follow, readAt));
+  }
+
+  private void follow(Entry entry, long readAt) {
+    try {
+      var last = entry.ring().lastTimestamp();
+      var from = last != Long.MIN_VALUE ?
+        TimeUnit.NANOSECONDS.toMillis(last) : readAt;
+      var call = open(entry, from);
+      if (!entry.attach(call)) {
+        return;
+      }
+      try (var response = call.execute()) {
+        if (!response.isSuccessful() || response.body() == null) {
+          throw new IOException("Failed to follow log of " +
+            entry.namespace() + "/" + entry.pod() + ": " + response.code());
+        }
+        entry.warm(true);
+        var reader = new BufferedReader(new InputStreamReader(
+          response.body().byteStream(), StandardCharsets.UTF_8));
+        var overlap = true;
+        String line;
+        while ((line = reader.readLine()) != null) {
+          var timestamp = PodLogRing.parseTimestamp(line);
+          if (overlap && timestamp != Long.MIN_VALUE && timestamp <= last) {
+            continue;
+          }
+          overlap = false;
+          entry.ring().append(line);
+        }
+      }
+    } catch (SocketTimeoutException exception) {
+      // The container has been idle for too long, the ring is read again
+    } catch (Exception exception) {
+      if (!entry.cancelled()) {
+        log.processError(exception);
+      }
+    } finally {
+      entry.stopFollowing();
+      followStreams.release();
+    }
+  }
+
+  /**
+   * Opens a follow stream that starts a little before the given time, the
+   * lines the ring already holds are skipped
+   */
+  private Call open(Entry entry, long from) throws Exception {
+    var sinceSeconds = Math.max(1,
+      (System.currentTimeMillis() - from) / 1000 + 2);
+    var builder = coreApi
+      .readNamespacedPodLog(entry.pod(), entry.namespace())
+      .follow(true)
+      .timestamps(true)
+      .sinceSeconds((int) Math.min(Integer.MAX_VALUE, sinceSeconds));
+    if (!entry.container().isEmpty()) {
+      builder = builder.container(entry.container());
+    }
+    var httpClient = apiClient.getHttpClient().newBuilder()
+      .readTimeout(Duration.ofSeconds(configuration.idleTimeoutSeconds()))
+      .build();
+    return httpClient.newCall(builder.buildCall(null).request());
+  }
+
+  /**
+   * @return The lines of the log since the time, at most as many lines and
+   * bytes as a log request returns. Like the kubelet, the byte limit cuts off
+   * the end of the selected lines, but only at the end of a line
+   */
+  private String select(String logs, long since) {
+    var lines = Lists.newArrayList(logs.split("\n"));
+    var start = Math.max(0, lines.size() - TAIL_LINES);
+    if (since != Long.MIN_VALUE) {
+      while (start < lines.size()) {
+        var timestamp = PodLogRing.parseTimestamp(lines.get(start));
+        if (timestamp != Long.MIN_VALUE && timestamp >= since) {
+          break;
+        }
+        start++;
+      }
+    }
+    var end = start;
+    var bytes = 0L;
+    while (end < lines.size()) {
+      bytes += lines.get(end).getBytes(StandardCharsets.UTF_8).length + 1;
+      if (bytes > LIMIT_BYTES) {
+        break;
+      }
+      end++;
+    }
+    if (end <= start) {
+      return "";
+    }
+    return String.join("\n", lines.subList(start, end)) + "\n";
+  }
+
+  private void expire() {
+    var deadline = System.currentTimeMillis() -
+      TimeUnit.SECONDS.toMillis(configuration.cacheTtlSeconds());
+    var iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      var entry = iterator.next().getValue();
+      if (entry.lastAccess() >= deadline) {
+        break;
+      }
+      iterator.remove();
+      release(entry);
+    }
+  }
+
+  private void evict(String key) {
+    var entry = entries.remove(key);
+    if (entry != null) {
+      release(entry);
+    }
+  }
+
+  private void release(Entry entry) {
+    usedBytes -= entry.ring().capacity();
+    entry.cancel();
+    entry.ring().release();
+  }
+
+  /**
+   * @return The time from which on the read log is complete, which is later
+   * than the requested time if the log was cut off at the line limit
+   */
+  private long coveredFrom(String logs, long since) {
+    if (since == Long.MIN_VALUE) {
+      return since;
+    }
+    var lines = 0;
+    var index = -1;
+    while ((index = logs.indexOf('\n', index + 1)) >= 0) {
+      lines++;
+    }
+    if (lines < TAIL_LINES && logs.length() * 3L < LIMIT_BYTES) {
+      return since;
+    }
+    var first = PodLogRing.parseTimestamp(logs);
+    return first == Long.MIN_VALUE ? Long.MAX_VALUE :
+      Math.max(since, first + 1);
+  }
+
+  private long since(PodLogRequest request) {
+    if (request.getSinceSeconds() <= 0) {
+      return Long.MIN_VALUE;
+    }
+    return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) -
+      TimeUnit.SECONDS.toNanos(request.getSinceSeconds());
+  }
+
+  private String key(PodLogRequest request) {
+    return request.getNamespace() + "/" + request.getPod() + "/" +
+      request.getContainer();
+  }
+
+  @Getter
+  @Accessors(fluent = true)
+  @RequiredArgsConstructor(staticName = "create")
+  private static final class Entry {
+    private final String namespace;
+    private final String pod;
+    private final String container;
+    private final PodLogRing ring;
+    private volatile long lastAccess = System.currentTimeMillis();
+    private volatile boolean warm = false;
+    private boolean following = false;
+    private boolean cancelled = false;
+    private Call call;
+
+    private void touch() {
+      lastAccess = System.currentTimeMillis();
+    }
+
+    private void warm(boolean warm) {
+      this.warm = warm;
+    }
+
+    /**
+     * @return Whether the log has to be followed, false if it already is
+     */
+    private synchronized boolean startFollowing() {
+      if (following || cancelled) {
+        return false;
+      }
+      following = true;
+      return true;
+    }
+
+    private synchronized void stopFollowing() {
+      following = false;
+      warm = false;
+      call = null;
+    }
+
+    private synchronized boolean attach(Call call) {
+      this.call = call;
+      return !cancelled;
+    }
+
+    private synchronized boolean cancelled() {
+      return cancelled;
+    }
+
+    private synchronized void cancel() {
+      cancelled = true;
+      warm = false;
+      if (call != null) {
+        call.cancel();
+      }
+    }
+  }
+}
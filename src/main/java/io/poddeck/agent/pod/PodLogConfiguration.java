@@ -0,0 +1,47 @@
+package io.poddeck.agent.pod;
+
+import io.poddeck.common.configuration.Configuration;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+import org.apache.commons.configuration2.AbstractConfiguration;
+
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+public class PodLogConfiguration implements Configuration {
+  private int followTailLines;
+  private int followMaxStreams;
+  private int chunkBytes;
+  private int idleTimeoutSeconds;
+  private int aggregateMaxStreams;
+  private int mergeBufferLines;
+  private int mergeLagMillis;
+  private long cacheBudgetBytes;
+  private int cacheRingBytes;
+  private int cacheTtlSeconds;
+  private int cacheMaxFollowStreams;
+  private String exportDirectory;
+  private int exportTtlSeconds;
+  private long exportMaxBytes;
+  private int exportMaxStreams;
+
+  @Override
+  public void load(AbstractConfiguration file) {
+    followTailLines = file.getInt("log.follow_tail_lines", 1000);
+    followMaxStreams = file.getInt("log.follow_max_streams", 16);
+    chunkBytes = file.getInt("log.chunk_bytes", 65536);
+    idleTimeoutSeconds = file.getInt("log.idle_timeout_seconds", 300);
+    aggregateMaxStreams = file.getInt("log.aggregate_max_streams", 64);
+    mergeBufferLines = file.getInt("log.merge_buffer_lines", 1024);
+    mergeLagMillis = file.getInt("log.merge_lag_millis", 500);
+    cacheBudgetBytes = file.getLong("log.cache_budget_bytes", 0);
+    cacheRingBytes = file.getInt("log.cache_ring_bytes", 2097152);
+    cacheTtlSeconds = file.getInt("log.cache_ttl_seconds", 600);
+    cacheMaxFollowStreams = file.getInt("log.cache_max_follow_streams", 8);
+    exportDirectory = file.getString("log.export_directory", "");
+    exportTtlSeconds = file.getInt("log.export_ttl_seconds", 900);
+    exportMaxBytes = file.getLong("log.export_max_bytes", 1073741824);
+    exportMaxStreams = file.getInt("log.export_max_streams", 4);
+  }
+}
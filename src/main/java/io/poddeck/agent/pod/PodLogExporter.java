@@ -0,0 +1,333 @@
+package io.poddeck.agent.pod;
+
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.poddeck.agent.communication.CommunicationClient;
+import io.poddeck.agent.communication.service.RequestContext;
+import io.poddeck.common.PodLogRequest;
+import io.poddeck.common.PodLogResponse;
+import io.poddeck.common.log.Log;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports complete pod logs, which may be far larger than the heap. A
+ * request starts an export by naming the pod as {@code <pod>@0}. The log is
+ * downloaded into a spool file on disk, which is memory mapped and sent in
+ * chunks that end at a line break where possible, the end of the log is
+ * signaled by an empty chunk. Bytes that are not valid UTF-8 are replaced
+ * while the spool is written, so the chunks are exactly the bytes of the
+ * spool in order. The core knows the offset of every chunk and resumes an
+ * interrupted export by requesting the pod as {@code <pod>@<offset>}. An
+ * export that is cancelled before the whole spool was sent ends without the
+ * empty chunk, so it is never taken for a complete one. Exports run as
+ * streams outside of the concurrency and deadline of their service, so only
+ * a limited amount of them runs at once. Spool files are kept for the export
+ * ttl, so resuming does not download the log again. A resume fails once its
+ * spool is gone, since a new download would not match the offsets of the old
+ * one. All spools together stay within the export quota, the oldest spools
+ * are deleted to make room and a download that does not fit is aborted.
+ * Spools left behind by a previous run are deleted on startup. Exports are
+ * not filtered, since the offsets refer to the complete log
+ */
+@Singleton
+final class PodLogExporter {
+  private final CoreV1Api coreApi;
+  private final PodLogConfiguration configuration;
+  private final Log log;
+  private final Map<String, Spool> spools = Maps.newLinkedHashMap();
+  private final Semaphore exports;
+  private long usedBytes = 0;
+
+  private static final long TRANSFER_BYTES = 1L << 20;
+  private static final int TRANSFER_CHARS = (int) (TRANSFER_BYTES / 4);
+  private static final String SPOOL_PREFIX = "pod-log-";
+  private static final String SPOOL_SUFFIX = ".log";
+
+  @Inject
+  private PodLogExporter(
+    CoreV1Api coreApi, PodLogConfiguration configuration, Log log
+  ) {
+    this.coreApi = coreApi;
+    this.configuration = configuration;
+    this.log = log;
+    this.exports = new Semaphore(Math.max(0, configuration.exportMaxStreams()));
+    deleteLeftovers();
+  }
+
+  /**
+   * Exports the log of a pod
+   * @param client The client
+   * @param requestId The id of the request
+   * @param request The request without its options
+   * @param offset The offset to send the log from, a positive offset resumes
+   *               an export whose spool is still kept
+   * @throws IllegalStateException If too many exports are running
+   */
+  void export(
+    CommunicationClient client, String requestId, PodLogRequest request,
+    long offset
+  ) throws Exception {
+    if (!exports.tryAcquire()) {
+      throw new IllegalStateException("Too many log exports, at most " +
+        configuration.exportMaxStreams() + " run at once");
+    }
+    try {
+      RequestContext.current().ifPresent(RequestContext::stream);
+      var key = request.getNamespace() + "/" + request.getPod() + "/" +
+        request.getContainer() + "/" + request.getSinceSeconds();
+      Spool spool;
+      if (offset > 0) {
+        spool = find(key).orElseThrow(() -> new IOException(
+          "Failed to resume export of " + request.getNamespace() + "/" +
+            request.getPod() + ": the spool has expired"));
+      } else {
+        spool = download(request);
+        store(key, spool);
+      }
+      send(client, requestId, spool, offset);
+      client.send(requestId, PodLogResponse.newBuilder().build());
+    } finally {
+      exports.release();
+    }
+  }
+
+  /**
+   * Streams the log into a new spool file without holding it in memory. The
+   * log is decoded and encoded again, which replaces bytes that are not
+   * valid UTF-8, so the spool holds the text the core receives byte for
+   * byte. The space of the spool is reserved from the export quota while it
+   * is written
+   */
+  private Spool download(PodLogRequest request) throws Exception {
+    var builder = coreApi
+      .readNamespacedPodLog(request.getPod(), request.getNamespace())
+      .timestamps(true);
+    if (!request.getContainer().isEmpty()) {
+      builder = builder.container(request.getContainer());
+    }
+    if (request.getSinceSeconds() > 0) {
+      builder = builder.sinceSeconds(request.getSinceSeconds());
+    }
+    var name = request.getNamespace() + "/" + request.getPod();
+    var path = Files.createTempFile(directory(), SPOOL_PREFIX, SPOOL_SUFFIX);
+    var size = 0L;
+    var reserved = 0L;
+    try (var response = builder.buildCall(null).execute()) {
+      if (!response.isSuccessful() || response.body() == null) {
+        throw new IOException("Failed to export log of " + name + ": " +
+          response.code());
+      }
+      var reader = new InputStreamReader(response.body().byteStream(),
+        StandardCharsets.UTF_8);
+      try (var channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        var writer = new OutputStreamWriter(Channels.newOutputStream(channel),
+          StandardCharsets.UTF_8)
+      ) {
+        reserve(TRANSFER_BYTES, name);
+        reserved = TRANSFER_BYTES;
+        var buffer = new char[TRANSFER_CHARS];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+          writer.write(buffer, 0, read);
+          writer.flush();
+          var written = channel.size() - size;
+          size += written;
+          reserve(written, name);
+          reserved += written;
+        }
+      }
+      size = Files.size(path);
+      unreserve(reserved - size);
+      return Spool.create(path, size, System.currentTimeMillis());
+    } catch (Exception exception) {
+      unreserve(reserved);
+      Files.deleteIfExists(path);
+      throw exception;
+    }
+  }
+
+  /**
+   * Sends the spool from the offset on, the file is mapped for the duration
+   * of the export and unmapped as soon as it is sent
+   */
+  private void send(
+    CommunicationClient client, String requestId, Spool spool, long offset
+  ) throws IOException {
+    var context = RequestContext.current();
+    var chunkBytes = Math.max(4, configuration.chunkBytes());
+    try (var arena = Arena.ofConfined();
+      var channel = FileChannel.open(spool.path(), StandardOpenOption.READ)
+    ) {
+      var size = channel.size();
+      var position = Math.max(0, offset);
+      if (position >= size) {
+        return;
+      }
+      var segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, size,
+        arena);
+      while (position < size &&
+        !context.map(RequestContext::isCancelled).orElse(false)
+      ) {
+        var length = Math.min(chunkBytes, size - position);
+        if (position + length < size) {
+          length = chunkEnd(segment, position, length);
+        }
+        var bytes = segment.asSlice(position, length)
+          .toArray(ValueLayout.JAVA_BYTE);
+        client.send(requestId, PodLogResponse.newBuilder()
+          .setLogs(new String(bytes, StandardCharsets.UTF_8)).build());
+        position += length;
+      }
+      if (position < size) {
+        throw new CancellationException("Export of " + spool.path() +
+          " was cancelled at offset " + position);
+      }
+    }
+  }
+
+  /**
+   * @return The length of the chunk that can be sent, which ends after the
+   * last line break or otherwise before an incomplete character
+   */
+  private long chunkEnd(MemorySegment segment, long offset, long length) {
+    for (var i = length - 1; i >= 0; i--) {
+      if (segment.get(ValueLayout.JAVA_BYTE, offset + i) == '\n') {
+        return i + 1;
+      }
+    }
+    var start = length;
+    while (start > 0 &&
+      (segment.get(ValueLayout.JAVA_BYTE, offset + start - 1) & 0xC0) == 0x80
+    ) {
+      start--;
+    }
+    if (start == 0) {
+      return length;
+    }
+    var lead = segment.get(ValueLayout.JAVA_BYTE, offset + start - 1) & 0xFF;
+    var size = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+    return length - (start - 1) >= size ? length : start - 1;
+  }
+
+  private synchronized Optional<Spool> find(String key) {
+    expire();
+    return Optional.ofNullable(spools.get(key));
+  }
+
+  private synchronized void store(String key, Spool spool) {
+    expire();
+    var previous = spools.remove(key);
+    if (previous != null) {
+      delete(previous);
+    }
+    spools.put(key, spool);
+  }
+
+  /**
+   * Reserves space of the export quota, one transfer ahead of the bytes that
+   * have been written, so a download never exceeds the quota. The oldest
+   * spools are deleted until the space is available
+   * @throws IOException If the space is not available even without spools
+   */
+  private synchronized void reserve(long bytes, String name)
+    throws IOException {
+    expire();
+    var iterator = spools.values().iterator();
+    while (usedBytes + bytes > configuration.exportMaxBytes() &&
+      iterator.hasNext()
+    ) {
+      var spool = iterator.next();
+      iterator.remove();
+      delete(spool);
+    }
+    if (usedBytes + bytes > configuration.exportMaxBytes()) {
+      throw new IOException("Failed to export log of " + name +
+        ": the export quota of " + configuration.exportMaxBytes() +
+        " bytes is exceeded");
+    }
+    usedBytes += bytes;
+  }
+
+  private synchronized void unreserve(long bytes) {
+    usedBytes -= bytes;
+  }
+
+  /**
+   * Deletes the spools that are older than the export ttl. Exports that are
+   * still sending a deleted spool keep their mapping until they are done
+   */
+  private void expire() {
+    var deadline = System.currentTimeMillis() -
+      TimeUnit.SECONDS.toMillis(configuration.exportTtlSeconds());
+    var iterator = spools.values().iterator();
+    while (iterator.hasNext()) {
+      var spool = iterator.next();
+      if (spool.createdAt() < deadline) {
+        iterator.remove();
+        delete(spool);
+      }
+    }
+  }
+
+  private void delete(Spool spool) {
+    usedBytes -= spool.size();
+    try {
+      Files.deleteIfExists(spool.path());
+    } catch (IOException exception) {
+      log.processError(exception);
+    }
+  }
+
+  /**
+   * Deletes the spools of a previous run, which are no longer known
+   */
+  private void deleteLeftovers() {
+    try (var leftovers = Files.newDirectoryStream(directory(),
+      SPOOL_PREFIX + "*" + SPOOL_SUFFIX)
+    ) {
+      for (var path : leftovers) {
+        Files.deleteIfExists(path);
+      }
+    } catch (IOException exception) {
+      log.processError(exception);
+    }
+  }
+
+  private Path directory() throws IOException {
+    var directory = configuration.exportDirectory().isEmpty() ?
+      Path.of(System.getProperty("java.io.tmpdir")) :
+      Path.of(configuration.exportDirectory());
+    return Files.createDirectories(directory);
+  }
+
+  @Getter
+  @Accessors(fluent = true)
+  @RequiredArgsConstructor(staticName = "create")
+  private static final class Spool {
+    private final Path path;
+    private final long size;
+    private final long createdAt;
+  }
+}
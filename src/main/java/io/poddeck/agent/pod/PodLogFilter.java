@@ -0,0 +1,128 @@
+package io.poddeck.agent.pod;
+
+import com.google.common.collect.Queues;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Filters the lines of a pod log before they are sent to the core. A line
+ * matches if it contains the pattern and its level is at least the minimum
+ * level, lines without a level inherit the level of the previous line, so
+ * stack traces stay with their message. Matches are sent together with the
+ * requested amount of lines before and after them. Sampling limits how many
+ * matches are sent per second, the other matches are treated as if they did
+ * not match. The filter is taken from the {@link PodLogOptions} of the
+ * request. A filter keeps state across lines and is used for a single log
+ */
+final class PodLogFilter {
+  private final String substring;
+  private final Pattern pattern;
+  private final PodLogLevel minLevel;
+  private final int before;
+  private final int after;
+  private final int linesPerSecond;
+  private final ArrayDeque<String> context;
+  private PodLogLevel level;
+  private int remainingAfter = 0;
+  private long second = -1;
+  private int sampled = 0;
+
+  private PodLogFilter(
+    String substring, Pattern pattern, PodLogLevel minLevel, int before,
+    int after, int linesPerSecond
+  ) {
+    this.substring = substring;
+    this.pattern = pattern;
+    this.minLevel = minLevel;
+    this.before = Math.max(0, before);
+    this.after = Math.max(0, after);
+    this.linesPerSecond = linesPerSecond;
+    this.context = Queues.newArrayDeque();
+  }
+
+  static PodLogFilter of(PodLogOptions options) {
+    var match = options.match();
+    var regex = options.regex() && !match.isEmpty();
+    return new PodLogFilter(regex ? "" : match,
+      regex ? Pattern.compile(match) : null, options.level(),
+      options.before(), options.after(), options.sample());
+  }
+
+  /**
+   * @return Whether the filter drops any lines, inactive filters can be
+   * skipped entirely
+   */
+  boolean isActive() {
+    return !substring.isEmpty() || pattern != null || minLevel != null ||
+      linesPerSecond > 0;
+  }
+
+  /**
+   * Filters the next line of the log
+   * @param line The line without its line break
+   * @param output Receives the lines that are to be sent, in order
+   */
+  void filter(String line, Consumer<String> output) {
+    var lineLevel = PodLogLevel.detect(line);
+    if (lineLevel != null) {
+      level = lineLevel;
+    }
+    if (matches(line) && sample()) {
+      while (!context.isEmpty()) {
+        output.accept(context.pollFirst());
+      }
+      output.accept(line);
+      remainingAfter = after;
+      return;
+    }
+    if (remainingAfter > 0) {
+      remainingAfter--;
+      output.accept(line);
+      return;
+    }
+    if (before > 0) {
+      if (context.size() == before) {
+        context.pollFirst();
+      }
+      context.addLast(line);
+    }
+  }
+
+  /**
+   * Filters a complete log
+   * @param logs The lines of the log
+   * @return The lines that are to be sent
+   */
+  String filter(String logs) {
+    var output = new StringBuilder();
+    logs.lines().forEach(line ->
+      filter(line, match -> output.append(match).append('\n')));
+    return output.toString();
+  }
+
+  private boolean matches(String line) {
+    if (minLevel != null && level != null &&
+      level.compareTo(minLevel) < 0
+    ) {
+      return false;
+    }
+    if (pattern != null) {
+      return pattern.matcher(line).find();
+    }
+    return substring.isEmpty() || line.contains(substring);
+  }
+
+  private boolean sample() {
+    if (linesPerSecond <= 0) {
+      return true;
+    }
+    var now = System.currentTimeMillis() / 1000;
+    if (now != second) {
+      second = now;
+      sampled = 0;
+    }
+    return sampled++ < linesPerSecond;
+  }
+}
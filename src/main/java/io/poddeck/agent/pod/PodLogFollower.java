@@ -0,0 +1,172 @@
+package io.poddeck.agent.pod;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.poddeck.agent.communication.CommunicationClient;
+import io.poddeck.agent.communication.service.RequestContext;
+import io.poddeck.common.PodLogRequest;
+import io.poddeck.common.PodLogResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Follows the log of a pod and forwards it in chunks, all of which carry the
+ * id of the request. A chunk ends at a line break if possible and never
+ * splits a character, the end of the log is signaled by an empty chunk.
+ * Sending blocks while the replies of the tunnel are backed up, which stops
+ * reading the log until the core has caught up. Following ends when the pod
+ * has not logged anything for the idle timeout or when the core cancels the
+ * request. Once the log is open, the request runs as a stream outside of the
+ * concurrency and deadline of its service, see
+ * {@link RequestContext#stream()}, so only a limited amount of logs is
+ * followed at once, see {@link PodLogStreams}. Lines that do not pass the
+ * {@link PodLogFilter} of the request are dropped before they are sent
+ */
+@Singleton
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
+final class PodLogFollower {
+  private final ApiClient apiClient;
+  private final CoreV1Api coreApi;
+  private final PodLogConfiguration configuration;
+  private final PodLogStreams podLogStreams;
+
+  void follow(
+    CommunicationClient client, String requestId, PodLogRequest request,
+    PodLogOptions options
+  ) throws Exception {
+    podLogStreams.open();
+    try {
+      follow(client, requestId, request, PodLogFilter.of(options));
+    } finally {
+      podLogStreams.close();
+    }
+  }
+
+  private void follow(
+    CommunicationClient client, String requestId, PodLogRequest request,
+    PodLogFilter filter
+  ) throws Exception {
+    var builder = coreApi
+      .readNamespacedPodLog(request.getPod(), request.getNamespace())
+      .follow(true)
+      .timestamps(true)
+      .tailLines(configuration.followTailLines());
+    if (!request.getContainer().isEmpty()) {
+      builder = builder.container(request.getContainer());
+    }
+    if (request.getSinceSeconds() > 0) {
+      builder = builder.sinceSeconds(request.getSinceSeconds());
+    }
+    var httpClient = apiClient.getHttpClient().newBuilder()
+      .readTimeout(Duration.ofSeconds(configuration.idleTimeoutSeconds()))
+      .build();
+    var call = httpClient.newCall(builder.buildCall(null).request());
+    try (var response = call.execute()) {
+      if (!response.isSuccessful() || response.body() == null) {
+        throw new IOException("Failed to follow log of " +
+          request.getNamespace() + "/" + request.getPod() + ": " +
+          response.code());
+      }
+      RequestContext.current().ifPresent(RequestContext::stream);
+      if (filter.isActive()) {
+        forwardFiltered(client, requestId, response.body().byteStream(),
+          filter);
+      } else {
+        forward(client, requestId, response.body().byteStream());
+      }
+    } catch (SocketTimeoutException exception) {
+      // The pod has been idle for too long, the log is closed like any other
+    }
+    client.send(requestId, PodLogResponse.newBuilder().build());
+  }
+
+  private void forward(
+    CommunicationClient client, String requestId, InputStream input
+  ) throws IOException {
+    var buffer = new byte[Math.max(4, configuration.chunkBytes())];
+    var length = 0;
+    int read;
+    while ((read = input.read(buffer, length, buffer.length - length)) != -1) {
+      length += read;
+      if (length < buffer.length && input.available() > 0) {
+        continue;
+      }
+      var end = chunkEnd(buffer, length);
+      if (end == 0) {
+        continue;
+      }
+      send(client, requestId, new String(buffer, 0, end,
+        StandardCharsets.UTF_8));
+      System.arraycopy(buffer, end, buffer, 0, length - end);
+      length -= end;
+    }
+    if (length > 0) {
+      send(client, requestId, new String(buffer, 0, length,
+        StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Forwards the lines that pass the filter. The lines are collected until
+   * the chunk is full or the pod has nothing more to read right now
+   */
+  private void forwardFiltered(
+    CommunicationClient client, String requestId, InputStream input,
+    PodLogFilter filter
+  ) throws IOException {
+    var reader = new BufferedReader(new InputStreamReader(input,
+      StandardCharsets.UTF_8));
+    var chunk = new StringBuilder();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      filter.filter(line, match -> chunk.append(match).append('\n'));
+      if (chunk.length() >= configuration.chunkBytes() ||
+        (!chunk.isEmpty() && !reader.ready())
+      ) {
+        send(client, requestId, chunk.toString());
+        chunk.setLength(0);
+      }
+    }
+    if (!chunk.isEmpty()) {
+      send(client, requestId, chunk.toString());
+    }
+  }
+
+  private void send(
+    CommunicationClient client, String requestId, String logs
+  ) {
+    client.send(requestId, PodLogResponse.newBuilder().setLogs(logs).build());
+  }
+
+  /**
+   * @return The length of the chunk that can be sent, which ends after the
+   * last line break or otherwise before an incomplete character
+   */
+  private int chunkEnd(byte[] buffer, int length) {
+    for (var i = length - 1; i >= 0; i--) {
+      if (buffer[i] == '\n') {
+        return i + 1;
+      }
+    }
+    var start = length;
+    while (start > 0 && (buffer[start - 1] & 0xC0) == 0x80) {
+      start--;
+    }
+    if (start == 0) {
+      return length;
+    }
+    var lead = buffer[start - 1] & 0xFF;
+    var size = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+    return length - (start - 1) >= size ? length : start - 1;
+  }
+}
@@ -0,0 +1,81 @@
+package io.poddeck.agent.pod;
+
+/**
+ * The severity of a log line, ordered from the least to the most severe
+ */
+public enum PodLogLevel {
+  TRACE,
+  DEBUG,
+  INFO,
+  WARN,
+  ERROR,
+  FATAL;
+
+  private static final String[] KEYWORDS = {"TRACE", "DEBUG", "INFO",
+    "WARNING", "WARN", "ERROR", "ERR", "FATAL", "CRITICAL", "PANIC"};
+  private static final PodLogLevel[] KEYWORD_LEVELS = {TRACE, DEBUG, INFO,
+    WARN, WARN, ERROR, ERROR, FATAL, FATAL, FATAL};
+  private static final int SCAN_LENGTH = 80;
+
+  /**
+   * Detects the level of a log line. The line may start with the timestamp
+   * added by kubernetes. Lines in the klog format are recognized by their
+   * severity prefix, other lines by the first level keyword near the start of
+   * the message, like "ERROR", "level=warn" or "\"level\":\"info\""
+   * @param line The log line
+   * @return The level, null if the line does not name one
+   */
+  public static PodLogLevel detect(String line) {
+    var start = messageStart(line);
+    var klogLevel = detectKlog(line, start);
+    if (klogLevel != null) {
+      return klogLevel;
+    }
+    var end = Math.min(line.length(), start + SCAN_LENGTH);
+    for (var i = start; i < end; i++) {
+      if (!Character.isLetter(line.charAt(i)) ||
+        (i > 0 && Character.isLetter(line.charAt(i - 1)))
+      ) {
+        continue;
+      }
+      for (var keyword = 0; keyword < KEYWORDS.length; keyword++) {
+        var length = KEYWORDS[keyword].length();
+        if (line.regionMatches(true, i, KEYWORDS[keyword], 0, length) &&
+          (i + length == line.length() ||
+            !Character.isLetter(line.charAt(i + length)))
+        ) {
+          return KEYWORD_LEVELS[keyword];
+        }
+      }
+    }
+    return null;
+  }
+
+  private static int messageStart(String line) {
+    if (line.length() > 20 && Character.isDigit(line.charAt(0)) &&
+      line.charAt(4) == '-' && line.charAt(10) == 'T'
+    ) {
+      var space = line.indexOf(' ');
+      return space >= 0 ? space + 1 : 0;
+    }
+    return 0;
+  }
+
+  private static PodLogLevel detectKlog(String line, int start) {
+    if (line.length() < start + 5) {
+      return null;
+    }
+    for (var i = start + 1; i < start + 5; i++) {
+      if (!Character.isDigit(line.charAt(i))) {
+        return null;
+      }
+    }
+    return switch (line.charAt(start)) {
+      case 'I' -> INFO;
+      case 'W' -> WARN;
+      case 'E' -> ERROR;
+      case 'F' -> FATAL;
+      default -> null;
+    };
+  }
+}
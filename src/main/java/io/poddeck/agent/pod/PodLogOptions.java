@@ -0,0 +1,136 @@
+package io.poddeck.agent.pod;
+
+import io.poddeck.common.PodLogRequest;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * The options of a single log request. A {@link PodLogRequest} only names
+ * the pod, so its options are appended to the pod as a query with url
+ * encoded values, like {@code my-pod?match=timeout&after=5&level=warn}.
+ * Pod and workload names cannot contain a '?', so a pod without options is
+ * read as it always was. A pod written as {@code <pod>@<offset>} exports the
+ * complete log from the byte offset on, see {@link PodLogExporter}. The
+ * options are:
+ * <ul>
+ *   <li>{@code follow}: the log is followed until the pod stops logging for
+ *   the idle timeout or until the core cancels the request</li>
+ *   <li>{@code match}: only lines containing the text are sent</li>
+ *   <li>{@code regex}: the match is a regular expression</li>
+ *   <li>{@code before}, {@code after}: lines sent around every match</li>
+ *   <li>{@code level}: only lines of at least this {@link PodLogLevel}</li>
+ *   <li>{@code sample}: at most this many matches per second</li>
+ * </ul>
+ */
+@Getter
+@Accessors(fluent = true)
+@RequiredArgsConstructor(staticName = "create")
+final class PodLogOptions {
+  private final String pod;
+  private final long offset;
+  private final boolean follow;
+  private final String match;
+  private final boolean regex;
+  private final int before;
+  private final int after;
+  private final PodLogLevel level;
+  private final int sample;
+
+  /**
+   * @param pod The pod of a log request, with or without options
+   * @return The options of the request
+   * @throws IllegalArgumentException If an option is unknown or invalid
+   */
+  static PodLogOptions parse(String pod) {
+    var separator = pod.indexOf('?');
+    var name = separator < 0 ? pod : pod.substring(0, separator);
+    var offset = -1L;
+    var at = name.indexOf('@');
+    if (at >= 0) {
+      offset = offset(name.substring(at + 1));
+      name = name.substring(0, at);
+    }
+    if (separator < 0) {
+      return create(name, offset, false, "", false, 0, 0, null, 0);
+    }
+    var follow = false;
+    var match = "";
+    var regex = false;
+    var before = 0;
+    var after = 0;
+    PodLogLevel level = null;
+    var sample = 0;
+    for (var option : pod.substring(separator + 1).split("&")) {
+      if (option.isEmpty()) {
+        continue;
+      }
+      var equals = option.indexOf('=');
+      var key = equals < 0 ? option : option.substring(0, equals);
+      var value = equals < 0 ? "" : URLDecoder.decode(
+        option.substring(equals + 1), StandardCharsets.UTF_8);
+      switch (key) {
+        case "follow" -> follow = flag(value);
+        case "match" -> match = value;
+        case "regex" -> regex = flag(value);
+        case "before" -> before = count(key, value);
+        case "after" -> after = count(key, value);
+        case "level" -> level = PodLogLevel.valueOf(
+          value.toUpperCase(Locale.ROOT));
+        case "sample" -> sample = count(key, value);
+        default -> throw new IllegalArgumentException(
+          "Unknown log option: " + key);
+      }
+    }
+    return create(name, offset, follow, match, regex, before, after, level,
+      sample);
+  }
+
+  /**
+   * @return Whether the complete log is exported from the {@link #offset()}
+   */
+  boolean export() {
+    return offset >= 0;
+  }
+
+  /**
+   * @param request The log request the options were parsed from
+   * @return The request without its options
+   */
+  PodLogRequest strip(PodLogRequest request) {
+    return request.toBuilder().setPod(pod).build();
+  }
+
+  private static long offset(String value) {
+    try {
+      var offset = Long.parseLong(value);
+      if (offset >= 0) {
+        return offset;
+      }
+    } catch (NumberFormatException exception) {
+      // Reported below
+    }
+    throw new IllegalArgumentException("Invalid export offset: " + value);
+  }
+
+  private static boolean flag(String value) {
+    return value.isEmpty() || Boolean.parseBoolean(value);
+  }
+
+  private static int count(String key, String value) {
+    try {
+      var count = Integer.parseInt(value);
+      if (count >= 0) {
+        return count;
+      }
+    } catch (NumberFormatException exception) {
+      // Reported below
+    }
+    throw new IllegalArgumentException("Invalid log option " + key + ": " +
+      value);
+  }
+}
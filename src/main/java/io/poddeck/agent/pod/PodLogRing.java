@@ -0,0 +1,170 @@
+package io.poddeck.agent.pod;
+
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * A ring buffer holding the most recent lines of a container log outside of
+ * the heap. Lines are stored with their line break, once the buffer is full
+ * the oldest lines are dropped. The memory is released as soon as the ring
+ * is released instead of waiting for the garbage collector
+ */
+final class PodLogRing {
+  private final Arena arena;
+  private final ByteBuffer buffer;
+  private final int capacity;
+  private int head = 0;
+  private int size = 0;
+  private long coveredFrom = Long.MIN_VALUE;
+  private long lastTimestamp = Long.MIN_VALUE;
+  private boolean tail = false;
+  private boolean truncated = false;
+  private boolean released = false;
+
+  private static final int TIMESTAMP_LENGTH = 40;
+
+  private PodLogRing(int capacity) {
+    this.arena = Arena.ofShared();
+    this.buffer = arena.allocate(capacity).asByteBuffer();
+    this.capacity = capacity;
+  }
+
+  static PodLogRing create(int capacity) {
+    return new PodLogRing(capacity);
+  }
+
+  int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Replaces the content of the ring
+   * @param logs The log lines
+   * @param coveredFrom The time in nanos from which on the logs are complete,
+   *                    {@link Long#MIN_VALUE} if they are the complete tail
+   */
+  synchronized void reset(String logs, long coveredFrom) {
+    head = 0;
+    size = 0;
+    lastTimestamp = Long.MIN_VALUE;
+    truncated = false;
+    tail = coveredFrom == Long.MIN_VALUE;
+    this.coveredFrom = coveredFrom;
+    var start = 0;
+    while (start < logs.length()) {
+      var end = logs.indexOf('\n', start);
+      end = end < 0 ? logs.length() : end;
+      append(logs.substring(start, end));
+      start = end + 1;
+    }
+  }
+
+  /**
+   * Appends a line, dropping the oldest lines if the ring is full
+   * @param line The line without its line break
+   */
+  synchronized void append(String line) {
+    if (released) {
+      return;
+    }
+    lastTimestamp = Math.max(lastTimestamp, parseTimestamp(line));
+    var bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > capacity) {
+      return;
+    }
+    while (capacity - size < bytes.length) {
+      dropOldestLine();
+    }
+    var tail = (head + size) % capacity;
+    var first = Math.min(bytes.length, capacity - tail);
+    buffer.put(tail, bytes, 0, first);
+    buffer.put(0, bytes, first, bytes.length - first);
+    size += bytes.length;
+  }
+
+  /**
+   * Drops the oldest line, from then on the ring only covers the time after
+   * that line
+   */
+  private void dropOldestLine() {
+    truncated = true;
+    var timestamp = parseTimestamp(peek(TIMESTAMP_LENGTH));
+    if (timestamp != Long.MIN_VALUE) {
+      coveredFrom = Math.max(coveredFrom, timestamp + 1);
+    }
+    var dropped = 0;
+    while (dropped < size) {
+      var value = buffer.get((head + dropped) % capacity);
+      dropped++;
+      if (value == '\n') {
+        break;
+      }
+    }
+    head = (head + dropped) % capacity;
+    size -= dropped;
+  }
+
+  /**
+   * @param since The time in nanos, {@link Long#MIN_VALUE} for the tail of
+   *              the log. The ring holds the tail if it was filled with the
+   *              tail or once it is full
+   * @return The content of the ring, empty if the ring does not hold all
+   * requested lines
+   */
+  synchronized Optional<String> read(long since) {
+    if (released) {
+      return Optional.empty();
+    }
+    var covered = since == Long.MIN_VALUE ? tail || truncated :
+      since >= coveredFrom;
+    return covered ? Optional.of(peek(size)) : Optional.empty();
+  }
+
+  /**
+   * @return The time of the newest line in nanos, {@link Long#MIN_VALUE} if
+   * the ring holds no line with a timestamp
+   */
+  synchronized long lastTimestamp() {
+    return lastTimestamp;
+  }
+
+  private String peek(int length) {
+    var bytes = new byte[Math.min(length, size)];
+    var first = Math.min(bytes.length, capacity - head);
+    buffer.get(head, bytes, 0, first);
+    buffer.get(0, bytes, first, bytes.length - first);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Frees the memory of the ring, it must not be used afterwards
+   */
+  synchronized void release() {
+    if (released) {
+      return;
+    }
+    released = true;
+    arena.close();
+  }
+
+  /**
+   * @return The timestamp kubernetes put in front of the line in nanos,
+   * {@link Long#MIN_VALUE} if there is none
+   */
+  static long parseTimestamp(String line) {
+    var space = line.indexOf(' ');
+    if (space <= 0) {
+      return Long.MIN_VALUE;
+    }
+    try {
+      var instant = Instant.parse(line.substring(0, space));
+      return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    } catch (DateTimeParseException exception) {
+      return Long.MIN_VALUE;
+    }
+  }
+}
@@ -9,32 +9,102 @@ import io.poddeck.common.PodLogRequest;
 import io.poddeck.common.PodLogResponse;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import okhttp3.Call;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 
 @Singleton
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class PodLogService implements Service<PodLogRequest> {
   private final CoreV1Api coreApi;
+  private final PodLogConfiguration configuration;
+  private final PodLogFollower podLogFollower;
+  private final PodLogAggregator podLogAggregator;
+  private final PodLogCache podLogCache;
+  private final PodLogExporter podLogExporter;
 
   @Override
   public void process(
     CommunicationClient client, String requestId, PodLogRequest request
   ) throws Exception {
+    var options = PodLogOptions.parse(request.getPod());
+    request = options.strip(request);
+    if (options.export()) {
+      podLogExporter.export(client, requestId, request, options.offset());
+      return;
+    }
+    if (PodLogAggregator.isWorkload(request.getPod())) {
+      podLogAggregator.aggregate(client, requestId, request, options);
+      return;
+    }
+    if (options.follow()) {
+      podLogFollower.follow(client, requestId, request, options);
+      return;
+    }
+    var filter = PodLogFilter.of(options);
+    var cached = podLogCache.find(request);
+    if (cached.isPresent()) {
+      send(client, requestId, cached.get(), filter);
+      return;
+    }
     var builder = coreApi
       .readNamespacedPodLog(request.getPod(), request.getNamespace())
       .timestamps(true)
-      .tailLines(10_000)
-      .limitBytes(2_000_000);
+      .tailLines(PodLogCache.TAIL_LINES)
+      .limitBytes(PodLogCache.LIMIT_BYTES);
     if (!request.getContainer().isEmpty()) {
       builder = builder.container(request.getContainer());
     }
     if (request.getSinceSeconds() > 0) {
       builder = builder.sinceSeconds(request.getSinceSeconds());
     }
-    var logs = builder.execute();
-    if (logs == null) {
-      logs = "";
+    var readAt = System.currentTimeMillis();
+    var cache = podLogCache.isEnabled();
+    if (filter.isActive() && !cache) {
+      client.send(requestId, PodLogResponse.newBuilder()
+        .setLogs(readFiltered(builder.buildCall(null), filter)).build());
+      return;
+    }
+    var logs = Objects.requireNonNullElse(builder.execute(), "");
+    if (cache) {
+      podLogCache.store(request, logs, readAt);
+    }
+    send(client, requestId, logs, filter);
+  }
+
+  private void send(
+    CommunicationClient client, String requestId, String logs,
+    PodLogFilter filter
+  ) {
+    if (filter.isActive()) {
+      logs = filter.filter(logs);
     }
     client.send(requestId, PodLogResponse.newBuilder()
       .setLogs(logs).build());
   }
+
+  /**
+   * Reads the log line by line, so only the lines that pass the filter are
+   * kept in memory
+   */
+  private String readFiltered(Call call, PodLogFilter filter)
+    throws IOException {
+    try (var response = call.execute()) {
+      if (!response.isSuccessful() || response.body() == null) {
+        throw new IOException("Failed to read log: " + response.code());
+      }
+      var logs = new StringBuilder();
+      var reader = new BufferedReader(new InputStreamReader(
+        response.body().byteStream(), StandardCharsets.UTF_8));
+      String line;
+      while ((line = reader.readLine()) != null) {
+        filter.filter(line, match -> logs.append(match).append('\n'));
+      }
+      return logs.toString();
+    }
+  }
 }
@@ -0,0 +1,39 @@
+package io.poddeck.agent.pod;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the amount of logs that are followed at once. A followed log runs
+ * as a stream outside of the concurrency and deadline of its service, so
+ * this is the only bound of the open follow streams. A followed log of a
+ * single pod and of a workload count as one stream each
+ */
+@Singleton
+final class PodLogStreams {
+  private final PodLogConfiguration configuration;
+  private final Semaphore permits;
+
+  @Inject
+  private PodLogStreams(PodLogConfiguration configuration) {
+    this.configuration = configuration;
+    this.permits = new Semaphore(Math.max(0, configuration.followMaxStreams()));
+  }
+
+  /**
+   * Opens a follow stream, which has to be closed once the log ends
+   * @throws IllegalStateException If the maximum of follow streams is open
+   */
+  void open() {
+    if (!permits.tryAcquire()) {
+      throw new IllegalStateException("Too many followed logs, at most " +
+        configuration.followMaxStreams() + " are followed at once");
+    }
+  }
+
+  void close() {
+    permits.release();
+  }
+}
@@ -0,0 +1,18 @@
+package io.poddeck.agent.pod;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.configuration2.AbstractConfiguration;
+
+@RequiredArgsConstructor(staticName = "create")
+public final class PodModule extends AbstractModule {
+  @Provides
+  @Singleton
+  PodLogConfiguration podLogConfiguration(AbstractConfiguration file) {
+    var configuration = PodLogConfiguration.create();
+    configuration.load(file);
+    return configuration;
+  }
+}
@@ -3,12 +3,12 @@ package io.poddeck.agent.replicaset;
 import com.google.api.client.util.Lists;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.*;
-import io.kubernetes.client.util.Yaml;
+import io.poddeck.agent.cache.MessageCache;
+import io.poddeck.agent.cache.YamlCache;
+import io.poddeck.agent.event.EventIndex;
 import io.poddeck.agent.pod.PodFactory;
 import io.poddeck.common.*;
-import io.poddeck.common.log.Log;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 
@@ -20,17 +20,38 @@ import java.util.Optional;
 @Singleton
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class ReplicaSetFactory {
-  private final CoreV1Api coreApi;
+  private final EventIndex eventIndex;
   private final PodFactory podFactory;
-  private final Log log;
+  private final YamlCache yamlCache;
+  private final MessageCache messageCache;
 
   public ReplicaSet assembleReplicaSet(V1ReplicaSet replicaSet) {
-    return ReplicaSet.newBuilder()
-      .setMetadata(assembleMetadata(replicaSet))
-      .setSpec(assembleSpec(replicaSet))
-      .setStatus(assembleStatus(replicaSet))
+    return assembleReplicaSet(replicaSet, true);
+  }
+
+  /**
+   * Assembles a replica set as an item of a list response, which only carries
+   * the raw yaml if configured
+   */
+  public ReplicaSet assembleReplicaSetListItem(V1ReplicaSet replicaSet) {
+    return assembleReplicaSet(replicaSet, yamlCache.includeInLists());
+  }
+
+  private ReplicaSet assembleReplicaSet(V1ReplicaSet replicaSet, boolean raw) {
+    var cached = messageCache.find(replicaSet, raw, () -> {
+      var builder = ReplicaSet.newBuilder()
+        .setMetadata(assembleMetadata(replicaSet))
+        .setSpec(assembleSpec(replicaSet))
+        .setStatus(assembleStatus(replicaSet));
+      if (raw) {
+        builder.setRaw(yamlCache.dump(replicaSet));
+      }
+      return builder.build();
+    });
+    return cached.toBuilder()
+      .setStatus(cached.getStatus().toBuilder()
+        .setAge(calculateAge(replicaSet)))
       .addAllEvents(assembleReplicaSetEvents(replicaSet))
-      .setRaw(Yaml.dump(replicaSet))
       .build();
   }
 
@@ -118,14 +139,6 @@ public final class ReplicaSetFactory {
         .map(this::assembleReplicaSetCondition).toList() :
       Lists.<ReplicaSetCondition>newArrayList();
 
-    var age = 0L;
-    if (replicaSet.getMetadata() != null &&
-      replicaSet.getMetadata().getCreationTimestamp() != null
-    ) {
-      age = System.currentTimeMillis() -
-        replicaSet.getMetadata().getCreationTimestamp().toEpochSecond() * 1000L;
-    }
-
     return ReplicaSetStatus.newBuilder()
       .setReplicas(Optional.ofNullable(status.getReplicas()).orElse(0))
       .setFullyLabeledReplicas(Optional.ofNullable(status.getFullyLabeledReplicas())
@@ -135,7 +148,6 @@ public final class ReplicaSetFactory {
         .orElse(0))
       .setObservedGeneration(Optional.ofNullable(status.getObservedGeneration())
         .map(Long::intValue).orElse(0))
-      .setAge(age)
       .addAllConditions(conditions)
       .build();
   }
@@ -156,25 +168,25 @@ public final class ReplicaSetFactory {
       .build();
   }
 
+  private long calculateAge(V1ReplicaSet replicaSet) {
+    if (replicaSet.getMetadata() == null ||
+      replicaSet.getMetadata().getCreationTimestamp() == null
+    ) {
+      return 0L;
+    }
+    return System.currentTimeMillis() -
+      replicaSet.getMetadata().getCreationTimestamp().toEpochSecond() * 1000L;
+  }
+
   private List<ReplicaSetEvent> assembleReplicaSetEvents(V1ReplicaSet replicaSet) {
-    try {
-      var metadata = replicaSet.getMetadata();
-      if (metadata == null) {
-        return Lists.newArrayList();
-      }
-      var namespace = metadata.getNamespace();
-      var name = metadata.getName();
-      var fieldSelector = "involvedObject.kind=ReplicaSet,involvedObject.name=" + name;
-      var items = coreApi.listNamespacedEvent(namespace)
-        .fieldSelector(fieldSelector)
-        .execute().getItems();
-      return items.stream()
-        .map(this::assembleReplicaSetEvent)
-        .toList();
-    } catch (Exception exception) {
-      log.processError(exception);
+    var metadata = replicaSet.getMetadata();
+    if (metadata == null) {
       return Lists.newArrayList();
     }
+    return eventIndex.find(metadata.getNamespace(), "ReplicaSet",
+        metadata.getName()).stream()
+      .map(this::assembleReplicaSetEvent)
+      .toList();
   }
 
   private ReplicaSetEvent assembleReplicaSetEvent(CoreV1Event event) {
@@ -3,6 +3,8 @@ package io.poddeck.agent.replicaset;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.models.V1ReplicaSet;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.ReplicaSetFindRequest;
@@ -15,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class ReplicaSetFindService implements Service<ReplicaSetFindRequest> {
   private final AppsV1Api appsApi;
+  private final ResourceCache resourceCache;
   private final ReplicaSetFactory replicaSetFactory;
   private final Log log;
 
@@ -23,8 +26,10 @@ public final class ReplicaSetFindService implements Service<ReplicaSetFindReques
     CommunicationClient client, String requestId, ReplicaSetFindRequest request
   ) throws Exception {
     try {
-      var replicaSet = appsApi.readNamespacedReplicaSet(request.getReplicaSet(),
-        request.getNamespace()).execute();
+      var replicaSet = resourceCache.find(V1ReplicaSet.class,
+        request.getNamespace(), request.getReplicaSet(),
+        () -> appsApi.readNamespacedReplicaSet(request.getReplicaSet(),
+          request.getNamespace()).execute());
       client.send(requestId, ReplicaSetFindResponse.newBuilder()
         .setSuccess(true)
         .setReplicaSet(replicaSetFactory.assembleReplicaSet(replicaSet))
@@ -2,7 +2,9 @@ package io.poddeck.agent.replicaset;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import io.kubernetes.client.openapi.models.V1ReplicaSet;
 import io.poddeck.agent.application.ApplicationLaunchEvent;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.service.ServiceRepository;
 import io.poddeck.common.*;
 import io.poddeck.common.event.EventHook;
@@ -14,6 +16,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class ReplicaSetHook implements Hook {
   private final ServiceRepository serviceRepository;
+  private final ResourceCache resourceCache;
+  private final ReplicaSetOwnerIndex replicaSetOwnerIndex;
   private final ReplicaSetListService replicaSetListService;
   private final ReplicaSetFindService replicaSetFindService;
   private final ReplicaSetCreateService replicaSetCreateService;
@@ -24,16 +28,22 @@ public final class ReplicaSetHook implements Hook {
   @EventHook
   private void applicationLaunch(ApplicationLaunchEvent event) {
     serviceRepository.register(ReplicaSetListRequest.class,
-      replicaSetListService);
+      replicaSetListService, ReplicaSetListResponse.getDefaultInstance());
     serviceRepository.register(ReplicaSetFindRequest.class,
-      replicaSetFindService);
+      replicaSetFindService,
+      ReplicaSetFindResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(ReplicaSetCreateRequest.class,
-      replicaSetCreateService);
+      replicaSetCreateService,
+      ReplicaSetCreateResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(ReplicaSetDeleteRequest.class,
-      replicaSetDeleteService);
+      replicaSetDeleteService,
+      ReplicaSetDeleteResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(ReplicaSetScaleRequest.class,
-      replicaSetScaleService);
+      replicaSetScaleService,
+      ReplicaSetScaleResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(ReplicaSetEditRequest.class,
-      replicaSetEditService);
+      replicaSetEditService,
+      ReplicaSetEditResponse.newBuilder().setSuccess(false).build());
+    resourceCache.addEventHandler(V1ReplicaSet.class, replicaSetOwnerIndex);
   }
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package io.poddeck.agent.replicaset;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.models.V1ReplicaSet;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.ReplicaSetListRequest;
@@ -14,17 +16,19 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class ReplicaSetListService implements Service<ReplicaSetListRequest> {
   private final AppsV1Api appsApi;
+  private final ResourceCache resourceCache;
   private final ReplicaSetFactory replicaSetFactory;
 
   @Override
   public void process(
     CommunicationClient client, String requestId, ReplicaSetListRequest request
   ) throws Exception {
-    var replicaSetList = appsApi.listReplicaSetForAllNamespaces().execute().getItems();
-    var replicaSets = replicaSetList.stream()
-      .map(replicaSetFactory::assembleReplicaSet).toList();
-    client.send(requestId, ReplicaSetListResponse.newBuilder()
-      .addAllItems(replicaSets)
-      .build());
+    var replicaSetList = resourceCache.listPages(V1ReplicaSet.class,
+      (limit, continueToken) -> appsApi.listReplicaSetForAllNamespaces()
+        .limit(limit)._continue(continueToken).execute());
+    client.sendList(requestId, replicaSetList,
+      replicaSetFactory::assembleReplicaSetListItem,
+      replicaSets -> ReplicaSetListResponse.newBuilder()
+        .addAllItems(replicaSets).build());
   }
 }
@@ -0,0 +1,166 @@
+package io.poddeck.agent.replicaset;
+
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Longs;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.openapi.models.V1OwnerReference;
+import io.kubernetes.client.openapi.models.V1ReplicaSet;
+import io.poddeck.agent.cache.ResourceCache;
+import io.poddeck.agent.cache.ResourceSyncTracker;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups all replica sets by the uid of the object controlling them, which is
+ * the deployment for managed replica sets. The index is updated with every
+ * replica set change reported by the {@link ResourceCache}, so finding the
+ * replica sets of a deployment does not require listing them. The index is
+ * ready once it has processed the initial list of replica sets
+ */
+@Singleton
+public final class ReplicaSetOwnerIndex
+  implements ResourceEventHandler<V1ReplicaSet> {
+  private final ResourceSyncTracker<V1ReplicaSet> syncTracker;
+  private final Map<String, Map<String, V1ReplicaSet>> owners =
+    Maps.newHashMap();
+
+  private static final String REVISION_ANNOTATION =
+    "deployment.kubernetes.io/revision";
+  private static final Comparator<V1ReplicaSet> NEWEST_FIRST =
+    Comparator.comparingLong(ReplicaSetOwnerIndex::revision).reversed();
+
+  @Inject
+  private ReplicaSetOwnerIndex(ResourceCache resourceCache) {
+    this.syncTracker = ResourceSyncTracker.create(resourceCache,
+      V1ReplicaSet.class);
+  }
+
+  /**
+   * @return Whether the index contains all replica sets of the cluster
+   */
+  public boolean isReady() {
+    return syncTracker.isReady();
+  }
+
+  /**
+   * Finds the replica sets controlled by an object
+   * @param ownerUid The uid of the owner
+   * @return The replica sets, the one with the highest revision first
+   */
+  public synchronized List<V1ReplicaSet> find(String ownerUid) {
+    var replicaSets = owners.get(ownerUid);
+    if (replicaSets == null) {
+      return Collections.emptyList();
+    }
+    return sort(ownerUid, replicaSets.values());
+  }
+
+  /**
+   * Picks the replica sets controlled by an object out of a list of replica
+   * sets, which is used while the index is not ready
+   * @param ownerUid The uid of the owner
+   * @param replicaSets The replica sets
+   * @return The replica sets of the owner, the one with the highest revision
+   * first
+   */
+  public static List<V1ReplicaSet> sort(
+    String ownerUid, Collection<V1ReplicaSet> replicaSets
+  ) {
+    return replicaSets.stream()
+      .filter(replicaSet -> ownerUid.equals(controllerUid(replicaSet)))
+      .sorted(NEWEST_FIRST)
+      .toList();
+  }
+
+  @Override
+  public synchronized void onAdd(V1ReplicaSet replicaSet) {
+    remove(replicaSet);
+    add(replicaSet);
+    syncTracker.processed(replicaSet);
+  }
+
+  @Override
+  public synchronized void onUpdate(
+    V1ReplicaSet oldReplicaSet, V1ReplicaSet newReplicaSet
+  ) {
+    remove(oldReplicaSet);
+    add(newReplicaSet);
+    syncTracker.processed(newReplicaSet);
+  }
+
+  @Override
+  public synchronized void onDelete(
+    V1ReplicaSet replicaSet, boolean finalStateUnknown
+  ) {
+    remove(replicaSet);
+    syncTracker.deleted(replicaSet);
+  }
+
+  private void add(V1ReplicaSet replicaSet) {
+    var owner = controllerUid(replicaSet);
+    var key = replicaSetKey(replicaSet);
+    if (owner == null || key == null) {
+      return;
+    }
+    owners.computeIfAbsent(owner, uid -> Maps.newHashMap())
+      .put(key, replicaSet);
+  }
+
+  private void remove(V1ReplicaSet replicaSet) {
+    var owner = controllerUid(replicaSet);
+    var key = replicaSetKey(replicaSet);
+    if (owner == null || key == null) {
+      return;
+    }
+    var replicaSets = owners.get(owner);
+    if (replicaSets == null) {
+      return;
+    }
+    replicaSets.remove(key);
+    if (replicaSets.isEmpty()) {
+      owners.remove(owner);
+    }
+  }
+
+  private static String controllerUid(V1ReplicaSet replicaSet) {
+    var metadata = replicaSet.getMetadata();
+    if (metadata == null || metadata.getOwnerReferences() == null) {
+      return null;
+    }
+    return metadata.getOwnerReferences().stream()
+      .filter(reference -> Boolean.TRUE.equals(reference.getController()))
+      .map(V1OwnerReference::getUid)
+      .findFirst()
+      .orElse(null);
+  }
+
+  private static long revision(V1ReplicaSet replicaSet) {
+    var metadata = replicaSet.getMetadata();
+    if (metadata == null || metadata.getAnnotations() == null) {
+      return 0L;
+    }
+    var revision = metadata.getAnnotations().get(REVISION_ANNOTATION);
+    if (revision == null) {
+      return 0L;
+    }
+    var value = Longs.tryParse(revision);
+    return value != null ? value : 0L;
+  }
+
+  private String replicaSetKey(V1ReplicaSet replicaSet) {
+    var metadata = replicaSet.getMetadata();
+    if (metadata == null) {
+      return null;
+    }
+    if (metadata.getUid() != null) {
+      return metadata.getUid();
+    }
+    return metadata.getNamespace() + "/" + metadata.getName();
+  }
+}
@@ -20,6 +20,7 @@ public final class ResourceHook implements Hook {
   @EventHook
   private void applicationLaunch(ApplicationLaunchEvent event) {
     serviceRepository.register(ResourceCreateRequest.class,
-      resourceCreateService);
+      resourceCreateService,
+      ResourceCreateResponse.newBuilder().setSuccess(false).build());
   }
 }
\ No newline at end of file
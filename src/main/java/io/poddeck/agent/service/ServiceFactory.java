@@ -5,9 +5,13 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.CoreV1Event;
+import io.kubernetes.client.openapi.models.V1Endpoints;
 import io.kubernetes.client.openapi.models.V1Service;
 import io.kubernetes.client.openapi.models.V1ServicePort;
-import io.kubernetes.client.util.Yaml;
+import io.poddeck.agent.cache.MessageCache;
+import io.poddeck.agent.cache.ResourceCache;
+import io.poddeck.agent.cache.YamlCache;
+import io.poddeck.agent.event.EventIndex;
 import io.poddeck.common.*;
 import io.poddeck.common.log.Log;
 import lombok.AccessLevel;
@@ -21,15 +25,41 @@ import java.util.Optional;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class ServiceFactory {
   private final CoreV1Api coreApi;
+  private final ResourceCache resourceCache;
+  private final EventIndex eventIndex;
   private final Log log;
+  private final YamlCache yamlCache;
+  private final MessageCache messageCache;
 
   public Service assembleService(V1Service service) {
-    return Service.newBuilder()
-      .setMetadata(assembleMetadata(service))
-      .setSpec(assembleSpec(service))
-      .setStatus(assembleStatus(service))
+    return assembleService(service, true);
+  }
+
+  /**
+   * Assembles a service as an item of a list response, which only carries
+   * the raw yaml if configured
+   */
+  public Service assembleServiceListItem(V1Service service) {
+    return assembleService(service, yamlCache.includeInLists());
+  }
+
+  private Service assembleService(V1Service service, boolean raw) {
+    var cached = messageCache.find(service, raw, () -> {
+      var builder = Service.newBuilder()
+        .setMetadata(assembleMetadata(service))
+        .setSpec(assembleSpec(service))
+        .setStatus(assembleStatus(service));
+      if (raw) {
+        builder.setRaw(yamlCache.dump(service));
+      }
+      return builder.build();
+    });
+    return cached.toBuilder()
+      .setStatus(cached.getStatus().toBuilder()
+        .setAge(calculateAge(service))
+        .clearEndpoints()
+        .addAllEndpoints(assembleEndpoints(service)))
       .addAllEvents(assembleServiceEvents(service))
-      .setRaw(Yaml.dump(service))
       .build();
   }
 
@@ -104,14 +134,6 @@ public final class ServiceFactory {
   private ServiceStatus assembleStatus(V1Service service) {
     var builder = ServiceStatus.newBuilder();
 
-    if (service.getMetadata() != null &&
-      service.getMetadata().getCreationTimestamp() != null
-    ) {
-      var age = System.currentTimeMillis() -
-        service.getMetadata().getCreationTimestamp().toEpochSecond() * 1000L;
-      builder.setAge(age);
-    }
-
     if (service.getStatus() != null &&
       service.getStatus().getLoadBalancer() != null &&
       service.getStatus().getLoadBalancer().getIngress() != null
@@ -125,8 +147,6 @@ public final class ServiceFactory {
         ));
     }
 
-    builder.addAllEndpoints(assembleEndpoints(service));
-
     return builder.build();
   }
 
@@ -137,11 +157,14 @@ public final class ServiceFactory {
         return Lists.newArrayList();
       }
 
-      var endpoints = coreApi
-        .readNamespacedEndpoints(metadata.getName(), metadata.getNamespace())
-        .execute();
+      var endpoints = resourceCache.findIfPresent(V1Endpoints.class,
+          metadata.getNamespace(), metadata.getName(), () -> coreApi
+            .readNamespacedEndpoints(metadata.getName(),
+              metadata.getNamespace())
+            .execute())
+        .orElse(null);
 
-      if (endpoints.getSubsets() == null) {
+      if (endpoints == null || endpoints.getSubsets() == null) {
         return Lists.newArrayList();
       }
 
@@ -167,29 +190,25 @@ public final class ServiceFactory {
     }
   }
 
+  private long calculateAge(V1Service service) {
+    if (service.getMetadata() == null ||
+      service.getMetadata().getCreationTimestamp() == null
+    ) {
+      return 0L;
+    }
+    return System.currentTimeMillis() -
+      service.getMetadata().getCreationTimestamp().toEpochSecond() * 1000L;
+  }
+
   private List<ServiceEvent> assembleServiceEvents(V1Service service) {
-    try {
-      var metadata = service.getMetadata();
-      if (metadata == null) {
-        return Lists.newArrayList();
-      }
-      var namespace = metadata.getNamespace();
-      var name = metadata.getName();
-      var fieldSelector =
-        "involvedObject.kind=Service,involvedObject.name=" + name;
-
-      var items = coreApi.listNamespacedEvent(namespace)
-        .fieldSelector(fieldSelector)
-        .execute()
-        .getItems();
-
-      return items.stream()
-        .map(this::assembleServiceEvent)
-        .toList();
-    } catch (Exception e) {
-      log.processError(e);
+    var metadata = service.getMetadata();
+    if (metadata == null) {
       return Lists.newArrayList();
     }
+    return eventIndex.find(metadata.getNamespace(), "Service",
+        metadata.getName()).stream()
+      .map(this::assembleServiceEvent)
+      .toList();
   }
 
   private ServiceEvent assembleServiceEvent(CoreV1Event event) {
@@ -3,6 +3,8 @@ package io.poddeck.agent.service;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Service;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.ServiceFindRequest;
@@ -15,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class ServiceFindService implements Service<ServiceFindRequest> {
   private final CoreV1Api coreApi;
+  private final ResourceCache resourceCache;
   private final ServiceFactory serviceFactory;
   private final Log log;
 
@@ -23,8 +26,10 @@ public final class ServiceFindService implements Service<ServiceFindRequest> {
     CommunicationClient client, String requestId, ServiceFindRequest request
   ) throws Exception {
     try {
-      var service = coreApi.readNamespacedService(request.getService(),
-        request.getNamespace()).execute();
+      var service = resourceCache.find(V1Service.class,
+        request.getNamespace(), request.getService(),
+        () -> coreApi.readNamespacedService(request.getService(),
+          request.getNamespace()).execute());
       client.send(requestId, ServiceFindResponse.newBuilder()
         .setSuccess(true)
         .setService(serviceFactory.assembleService(service))
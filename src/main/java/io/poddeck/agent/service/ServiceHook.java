@@ -5,9 +5,13 @@ import com.google.inject.Singleton;
 import io.poddeck.agent.application.ApplicationLaunchEvent;
 import io.poddeck.agent.communication.service.ServiceRepository;
 import io.poddeck.common.ServiceCreateRequest;
+import io.poddeck.common.ServiceCreateResponse;
 import io.poddeck.common.ServiceDeleteRequest;
+import io.poddeck.common.ServiceDeleteResponse;
 import io.poddeck.common.ServiceFindRequest;
+import io.poddeck.common.ServiceFindResponse;
 import io.poddeck.common.ServiceListRequest;
+import io.poddeck.common.ServiceListResponse;
 import io.poddeck.common.event.EventHook;
 import io.poddeck.common.event.Hook;
 import lombok.AccessLevel;
@@ -24,13 +28,13 @@ public final class ServiceHook implements Hook {
 
   @EventHook
   private void applicationLaunch(ApplicationLaunchEvent event) {
-    serviceRepository.register(ServiceListRequest.class,
-      serviceListService);
-    serviceRepository.register(ServiceFindRequest.class,
-      serviceFindService);
-    serviceRepository.register(ServiceCreateRequest.class,
-      serviceCreateService);
-    serviceRepository.register(ServiceDeleteRequest.class,
-      serviceDeleteService);
+    serviceRepository.register(ServiceListRequest.class, serviceListService,
+      ServiceListResponse.getDefaultInstance());
+    serviceRepository.register(ServiceFindRequest.class, serviceFindService,
+      ServiceFindResponse.newBuilder().setSuccess(false).build());
+    serviceRepository.register(ServiceCreateRequest.class, serviceCreateService,
+      ServiceCreateResponse.newBuilder().setSuccess(false).build());
+    serviceRepository.register(ServiceDeleteRequest.class, serviceDeleteService,
+      ServiceDeleteResponse.newBuilder().setSuccess(false).build());
   }
 }
\ No newline at end of file
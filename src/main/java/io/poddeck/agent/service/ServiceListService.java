@@ -3,6 +3,8 @@ package io.poddeck.agent.service;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Service;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.ServiceListRequest;
@@ -14,17 +16,19 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class ServiceListService implements Service<ServiceListRequest> {
   private final CoreV1Api coreApi;
+  private final ResourceCache resourceCache;
   private final ServiceFactory serviceFactory;
 
   @Override
   public void process(
     CommunicationClient client, String requestId, ServiceListRequest request
   ) throws Exception {
-    var serviceList = coreApi.listServiceForAllNamespaces().execute().getItems();
-    var services = serviceList.stream()
-      .map(serviceFactory::assembleService).toList();
-    client.send(requestId, ServiceListResponse.newBuilder()
-      .addAllItems(services)
-      .build());
+    var serviceList = resourceCache.listPages(V1Service.class,
+      (limit, continueToken) -> coreApi.listServiceForAllNamespaces()
+        .limit(limit)._continue(continueToken).execute());
+    client.sendList(requestId, serviceList,
+      serviceFactory::assembleServiceListItem,
+      services -> ServiceListResponse.newBuilder()
+        .addAllItems(services).build());
   }
 }
@@ -4,12 +4,12 @@ import com.google.api.client.util.Lists;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
-import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.models.*;
-import io.kubernetes.client.util.Yaml;
+import io.poddeck.agent.cache.MessageCache;
+import io.poddeck.agent.cache.YamlCache;
+import io.poddeck.agent.event.EventIndex;
 import io.poddeck.agent.pod.PodFactory;
 import io.poddeck.common.*;
-import io.poddeck.common.log.Log;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 
@@ -22,18 +22,39 @@ import java.util.stream.Collectors;
 @Singleton
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class StatefulSetFactory {
-  private final CoreV1Api coreApi;
+  private final EventIndex eventIndex;
   private final AppsV1Api appsApi;
   private final PodFactory podFactory;
-  private final Log log;
+  private final YamlCache yamlCache;
+  private final MessageCache messageCache;
 
   public StatefulSet assembleStatefulSet(V1StatefulSet statefulSet) {
-    return StatefulSet.newBuilder()
-      .setMetadata(assembleMetadata(statefulSet))
-      .setSpec(assembleSpec(statefulSet))
-      .setStatus(assembleStatus(statefulSet))
+    return assembleStatefulSet(statefulSet, true);
+  }
+
+  /**
+   * Assembles a stateful set as an item of a list response, which only carries
+   * the raw yaml if configured
+   */
+  public StatefulSet assembleStatefulSetListItem(V1StatefulSet statefulSet) {
+    return assembleStatefulSet(statefulSet, yamlCache.includeInLists());
+  }
+
+  private StatefulSet assembleStatefulSet(V1StatefulSet statefulSet, boolean raw) {
+    var cached = messageCache.find(statefulSet, raw, () -> {
+      var builder = StatefulSet.newBuilder()
+        .setMetadata(assembleMetadata(statefulSet))
+        .setSpec(assembleSpec(statefulSet))
+        .setStatus(assembleStatus(statefulSet));
+      if (raw) {
+        builder.setRaw(yamlCache.dump(statefulSet));
+      }
+      return builder.build();
+    });
+    return cached.toBuilder()
+      .setStatus(cached.getStatus().toBuilder()
+        .setAge(calculateAge(statefulSet)))
       .addAllEvents(assembleStatefulSetEvents(statefulSet))
-      .setRaw(Yaml.dump(statefulSet))
       .build();
   }
 
@@ -208,14 +229,6 @@ public final class StatefulSetFactory {
         .map(this::assembleStatefulSetCondition).toList() :
       Lists.<StatefulSetCondition>newArrayList();
 
-    var age = 0L;
-    if (statefulSet.getMetadata() != null &&
-      statefulSet.getMetadata().getCreationTimestamp() != null
-    ) {
-      age = System.currentTimeMillis() -
-        statefulSet.getMetadata().getCreationTimestamp().toEpochSecond() * 1000L;
-    }
-
     return StatefulSetStatus.newBuilder()
       .setReplicas(Optional.ofNullable(status.getReplicas()).orElse(0))
       .setReadyReplicas(Optional.ofNullable(status.getReadyReplicas()).orElse(0))
@@ -225,7 +238,6 @@ public final class StatefulSetFactory {
         .orElse(0))
       .setCurrentRevision(Optional.ofNullable(status.getCurrentRevision()).orElse(""))
       .setUpdateRevision(Optional.ofNullable(status.getUpdateRevision()).orElse(""))
-      .setAge(age)
       .addAllConditions(conditions)
       .setCollisionCount(Optional.ofNullable(status.getCollisionCount()).orElse(0))
       .setObservedGeneration(Optional.ofNullable(status.getObservedGeneration())
@@ -249,25 +261,25 @@ public final class StatefulSetFactory {
       .build();
   }
 
+  private long calculateAge(V1StatefulSet statefulSet) {
+    if (statefulSet.getMetadata() == null ||
+      statefulSet.getMetadata().getCreationTimestamp() == null
+    ) {
+      return 0L;
+    }
+    return System.currentTimeMillis() -
+      statefulSet.getMetadata().getCreationTimestamp().toEpochSecond() * 1000L;
+  }
+
   private List<StatefulSetEvent> assembleStatefulSetEvents(V1StatefulSet statefulSet) {
-    try {
-      var metadata = statefulSet.getMetadata();
-      if (metadata == null) {
-        return Lists.newArrayList();
-      }
-      var namespace = metadata.getNamespace();
-      var name = metadata.getName();
-      var fieldSelector = "involvedObject.kind=StatefulSet,involvedObject.name=" + name;
-      var items = coreApi.listNamespacedEvent(namespace)
-        .fieldSelector(fieldSelector)
-        .execute().getItems();
-      return items.stream()
-        .map(this::assembleStatefulSetEvent)
-        .toList();
-    } catch (Exception exception) {
-      log.processError(exception);
+    var metadata = statefulSet.getMetadata();
+    if (metadata == null) {
       return Lists.newArrayList();
     }
+    return eventIndex.find(metadata.getNamespace(), "StatefulSet",
+        metadata.getName()).stream()
+      .map(this::assembleStatefulSetEvent)
+      .toList();
   }
 
   private StatefulSetEvent assembleStatefulSetEvent(CoreV1Event event) {
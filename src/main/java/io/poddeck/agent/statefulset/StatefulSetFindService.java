@@ -3,6 +3,8 @@ package io.poddeck.agent.statefulset;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.models.V1StatefulSet;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.StatefulSetFindRequest;
@@ -15,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class StatefulSetFindService implements Service<StatefulSetFindRequest> {
   private final AppsV1Api appsApi;
+  private final ResourceCache resourceCache;
   private final StatefulSetFactory statefulSetFactory;
   private final Log log;
 
@@ -23,8 +26,10 @@ public final class StatefulSetFindService implements Service<StatefulSetFindRequ
     CommunicationClient client, String requestId, StatefulSetFindRequest request
   ) throws Exception {
     try {
-      var statefulSet = appsApi.readNamespacedStatefulSet(request.getStatefulSet(),
-        request.getNamespace()).execute();
+      var statefulSet = resourceCache.find(V1StatefulSet.class,
+        request.getNamespace(), request.getStatefulSet(),
+        () -> appsApi.readNamespacedStatefulSet(request.getStatefulSet(),
+          request.getNamespace()).execute());
       client.send(requestId, StatefulSetFindResponse.newBuilder()
         .setSuccess(true)
         .setStatefulSet(statefulSetFactory.assembleStatefulSet(statefulSet))
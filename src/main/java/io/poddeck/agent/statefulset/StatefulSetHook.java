@@ -25,18 +25,24 @@ public final class StatefulSetHook implements Hook {
   @EventHook
   private void applicationLaunch(ApplicationLaunchEvent event) {
     serviceRepository.register(StatefulSetListRequest.class,
-      statefulSetListService);
+      statefulSetListService, StatefulSetListResponse.getDefaultInstance());
     serviceRepository.register(StatefulSetFindRequest.class,
-      statefulSetFindService);
+      statefulSetFindService,
+      StatefulSetFindResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(StatefulSetCreateRequest.class,
-      statefulSetCreateService);
+      statefulSetCreateService,
+      StatefulSetCreateResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(StatefulSetDeleteRequest.class,
-      statefulSetDeleteService);
+      statefulSetDeleteService,
+      StatefulSetDeleteResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(StatefulSetScaleRequest.class,
-      statefulSetScaleService);
+      statefulSetScaleService,
+      StatefulSetScaleResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(StatefulSetRestartRequest.class,
-      statefulSetRestartService);
+      statefulSetRestartService,
+      StatefulSetRestartResponse.newBuilder().setSuccess(false).build());
     serviceRepository.register(StatefulSetEditRequest.class,
-      statefulSetEditService);
+      statefulSetEditService,
+      StatefulSetEditResponse.newBuilder().setSuccess(false).build());
   }
 }
\ No newline at end of file
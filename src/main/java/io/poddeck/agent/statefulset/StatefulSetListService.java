@@ -3,6 +3,8 @@ package io.poddeck.agent.statefulset;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
+import io.kubernetes.client.openapi.models.V1StatefulSet;
+import io.poddeck.agent.cache.ResourceCache;
 import io.poddeck.agent.communication.CommunicationClient;
 import io.poddeck.agent.communication.service.Service;
 import io.poddeck.common.StatefulSetListRequest;
@@ -14,17 +16,19 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE, onConstructor = @__({@Inject}))
 public final class StatefulSetListService implements Service<StatefulSetListRequest> {
   private final AppsV1Api appsApi;
+  private final ResourceCache resourceCache;
   private final StatefulSetFactory statefulSetFactory;
 
   @Override
   public void process(
     CommunicationClient client, String requestId, StatefulSetListRequest request
   ) throws Exception {
-    var statefulSetList = appsApi.listStatefulSetForAllNamespaces().execute().getItems();
-    var statefulSets = statefulSetList.stream()
-      .map(statefulSetFactory::assembleStatefulSet).toList();
-    client.send(requestId, StatefulSetListResponse.newBuilder()
-      .addAllItems(statefulSets)
-      .build());
+    var statefulSetList = resourceCache.listPages(V1StatefulSet.class,
+      (limit, continueToken) -> appsApi.listStatefulSetForAllNamespaces()
+        .limit(limit)._continue(continueToken).execute());
+    client.sendList(requestId, statefulSetList,
+      statefulSetFactory::assembleStatefulSetListItem,
+      statefulSets -> StatefulSetListResponse.newBuilder()
+        .addAllItems(statefulSets).build());
   }
 }
@@ -12,10 +12,12 @@ import org.apache.commons.configuration2.AbstractConfiguration;
 public class TelegrafConfiguration implements Configuration {
   private String namespace;
   private int port;
+  private boolean compression;
 
   @Override
   public void load(AbstractConfiguration file) {
     namespace = file.getString("telegraf.namespace");
     port = file.getInt("telegraf.port");
+    compression = file.getBoolean("telegraf.compression", true);
   }
 }
\ No newline at end of file
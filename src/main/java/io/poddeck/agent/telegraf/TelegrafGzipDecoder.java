@@ -0,0 +1,128 @@
+package io.poddeck.agent.telegraf;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Inflates a gzip stream piece by piece and passes the inflated bytes to the
+ * parser. The header is buffered until it is complete, the trailer after the
+ * deflate stream is ignored
+ */
+final class TelegrafGzipDecoder {
+  private final TelegrafMetricParser parser;
+  private final Inflater inflater = new Inflater(true);
+  private final byte[] output = new byte[8192];
+  private byte[] header = new byte[0];
+  private boolean headerComplete = false;
+
+  private static final int MINIMUM_HEADER_LENGTH = 10;
+  private static final int FLAG_HEADER_CRC = 2;
+  private static final int FLAG_EXTRA = 4;
+  private static final int FLAG_NAME = 8;
+  private static final int FLAG_COMMENT = 16;
+
+  private TelegrafGzipDecoder(TelegrafMetricParser parser) {
+    this.parser = parser;
+  }
+
+  static TelegrafGzipDecoder create(TelegrafMetricParser parser) {
+    return new TelegrafGzipDecoder(parser);
+  }
+
+  /**
+   * Inflates a piece of the compressed input
+   * @param data The buffer holding the piece
+   * @param offset The start of the piece inside the buffer
+   * @param length The length of the piece
+   */
+  void feed(byte[] data, int offset, int length) throws IOException {
+    if (!headerComplete) {
+      var previous = header.length;
+      header = Arrays.copyOf(header, previous + length);
+      System.arraycopy(data, offset, header, previous, length);
+      var headerLength = headerLength(header);
+      if (headerLength < 0) {
+        return;
+      }
+      headerComplete = true;
+      var remaining = header;
+      header = null;
+      inflate(remaining, headerLength, remaining.length - headerLength);
+      return;
+    }
+    inflate(data, offset, length);
+  }
+
+  /**
+   * Releases the inflater
+   */
+  void finish() {
+    inflater.end();
+  }
+
+  private void inflate(byte[] data, int offset, int length)
+    throws IOException {
+    if (inflater.finished() || length == 0) {
+      return;
+    }
+    inflater.setInput(data, offset, length);
+    try {
+      while (!inflater.finished() && !inflater.needsInput()) {
+        var inflated = inflater.inflate(output);
+        if (inflated == 0 && inflater.needsDictionary()) {
+          throw new IOException("Gzip stream requires a dictionary");
+        }
+        parser.feed(output, 0, inflated);
+      }
+    } catch (DataFormatException exception) {
+      throw new IOException("Malformed gzip stream", exception);
+    }
+  }
+
+  /**
+   * @return The length of the header or -1 if it is not complete yet
+   */
+  private int headerLength(byte[] data) throws IOException {
+    if (data.length < MINIMUM_HEADER_LENGTH) {
+      return -1;
+    }
+    if ((data[0] & 0xFF) != 0x1F || (data[1] & 0xFF) != 0x8B ||
+      data[2] != 8
+    ) {
+      throw new IOException("Not a gzip stream");
+    }
+    var flags = data[3] & 0xFF;
+    var position = MINIMUM_HEADER_LENGTH;
+    if ((flags & FLAG_EXTRA) != 0) {
+      if (position + 2 > data.length) {
+        return -1;
+      }
+      position += 2 + ((data[position] & 0xFF) |
+        ((data[position + 1] & 0xFF) << 8));
+    }
+    if ((flags & FLAG_NAME) != 0) {
+      position = skipZeroTerminated(data, position);
+    }
+    if ((flags & FLAG_COMMENT) != 0) {
+      position = skipZeroTerminated(data, position);
+    }
+    if ((flags & FLAG_HEADER_CRC) != 0 && position >= 0) {
+      position += 2;
+    }
+    return position >= 0 && position <= data.length ? position : -1;
+  }
+
+  private int skipZeroTerminated(byte[] data, int position) {
+    if (position < 0) {
+      return -1;
+    }
+    for (var i = position; i < data.length; i++) {
+      if (data[i] == 0) {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+}
@@ -1,47 +1,83 @@
 package io.poddeck.agent.telegraf;
 
+import com.google.common.collect.Maps;
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 
-import java.util.function.Function;
+import java.util.Map;
 
-@RequiredArgsConstructor(staticName = "create")
-public class TelegrafMetricBody {
-  private final String raw;
+/**
+ * The metrics exposed by a telegraf instance, indexed by metric name and
+ * label, so every lookup is constant time
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE, staticName = "create")
+public final class TelegrafMetricBody {
+  private final Map<String, Family> families;
 
-  public int countMetricLines(String metricName) {
-    return countMetricLines(line -> line.startsWith(metricName));
+  /**
+   * Parses the prometheus text exposition format
+   * @param raw The bytes of the exposition
+   * @return The parsed metrics
+   */
+  public static TelegrafMetricBody parse(byte[] raw) {
+    var parser = TelegrafMetricParser.create();
+    parser.feed(raw, 0, raw.length);
+    return parser.finish();
   }
 
-  public int countMetricLines(Function<String, Boolean> finder) {
-    int count = 0;
-    for (var line : raw.split("\n")) {
-      if (finder.apply(line)) {
-        count++;
-      }
-    }
-    return count;
+  public int countMetricLines(String metricName) {
+    var family = families.get(metricName);
+    return family != null ? family.samples : 0;
   }
 
   public double extractMetric(
     String metricName, String secondaryFilterKey, String secondaryFilterValue
   ) {
-    return extractMetric(line -> line.startsWith(metricName) &&
-      line.contains(secondaryFilterKey + "=\"" + secondaryFilterValue + "\""));
+    var family = families.get(metricName);
+    if (family == null) {
+      return -1;
+    }
+    return family.labelValues.getOrDefault(
+      labelKey(secondaryFilterKey, secondaryFilterValue), -1D);
   }
 
   public double extractMetric(String metricName) {
-    return extractMetric(line -> line.startsWith(metricName));
+    var family = families.get(metricName);
+    if (family == null || family.samples == 0) {
+      return -1;
+    }
+    return family.first;
   }
 
-  public double extractMetric(Function<String, Boolean> finder) {
-    for (var line : raw.split("\n")) {
-      if (finder.apply(line)) {
-        var parts = line.split(" ");
-        if (parts.length == 2) {
-          return Double.parseDouble(parts[1]);
-        }
+  private static String labelKey(String key, String value) {
+    return key + "=" + value;
+  }
+
+  /**
+   * All samples of a metric. Only the first sample of every label value is
+   * kept
+   */
+  static final class Family {
+    private final Map<String, Double> labelValues = Maps.newHashMap();
+    private int samples = 0;
+    private double first;
+
+    static Family create() {
+      return new Family();
+    }
+
+    void add(Map<String, String> labels, double value) {
+      if (samples == 0) {
+        first = value;
+      }
+      samples++;
+      if (labels == null) {
+        return;
+      }
+      for (var label : labels.entrySet()) {
+        labelValues.putIfAbsent(labelKey(label.getKey(), label.getValue()),
+          value);
       }
     }
-    return -1;
   }
 }
@@ -0,0 +1,27 @@
+package io.poddeck.agent.telegraf;
+
+import lombok.RequiredArgsConstructor;
+
+import java.net.http.HttpResponse;
+import java.util.Set;
+
+/**
+ * Streams the body of a metrics response into a {@link TelegrafMetricBody}.
+ * Gzip encoded bodies are inflated on the fly
+ */
+@RequiredArgsConstructor(staticName = "create")
+public final class TelegrafMetricBodyHandler
+  implements HttpResponse.BodyHandler<TelegrafMetricBody> {
+  private final Set<String> wantedFamilies;
+
+  @Override
+  public HttpResponse.BodySubscriber<TelegrafMetricBody> apply(
+    HttpResponse.ResponseInfo responseInfo
+  ) {
+    var compressed = responseInfo.headers().firstValue("Content-Encoding")
+      .map(encoding -> encoding.trim().equalsIgnoreCase("gzip"))
+      .orElse(false);
+    return TelegrafMetricSubscriber.create(
+      TelegrafMetricParser.create(wantedFamilies), compressed);
+  }
+}
@@ -0,0 +1,247 @@
+package io.poddeck.agent.telegraf;
+
+import com.google.common.collect.Maps;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses the prometheus text exposition format in a single pass. The input
+ * may be fed in arbitrary pieces, lines that are split across pieces are
+ * carried over to the next one. Samples of families that are not wanted are
+ * skipped before their labels and values are decoded
+ */
+final class TelegrafMetricParser {
+  private final Set<String> wantedFamilies;
+  private final Map<String, TelegrafMetricBody.Family> families =
+    Maps.newHashMap();
+  private byte[] carry = new byte[256];
+  private int carryLength = 0;
+  private byte[] currentName = new byte[0];
+  private TelegrafMetricBody.Family currentFamily;
+
+  private TelegrafMetricParser(Set<String> wantedFamilies) {
+    this.wantedFamilies = wantedFamilies;
+  }
+
+  /**
+   * @return A parser that keeps all families
+   */
+  static TelegrafMetricParser create() {
+    return new TelegrafMetricParser(Set.of());
+  }
+
+  /**
+   * @param wantedFamilies The names of the families to keep, all families
+   *                       are kept if empty
+   * @return A parser that only keeps the wanted families
+   */
+  static TelegrafMetricParser create(Set<String> wantedFamilies) {
+    return new TelegrafMetricParser(wantedFamilies);
+  }
+
+  /**
+   * Parses all complete lines of a piece of the input
+   * @param data The buffer holding the piece
+   * @param offset The start of the piece inside the buffer
+   * @param length The length of the piece
+   */
+  void feed(byte[] data, int offset, int length) {
+    var end = offset + length;
+    var lineStart = offset;
+    for (var i = offset; i < end; i++) {
+      if (data[i] != '\n') {
+        continue;
+      }
+      if (carryLength > 0) {
+        append(data, lineStart, i - lineStart);
+        parseLine(carry, 0, carryLength);
+        carryLength = 0;
+      } else {
+        parseLine(data, lineStart, i);
+      }
+      lineStart = i + 1;
+    }
+    if (lineStart < end) {
+      append(data, lineStart, end - lineStart);
+    }
+  }
+
+  /**
+   * Parses the remaining input
+   * @return The parsed metrics
+   */
+  TelegrafMetricBody finish() {
+    if (carryLength > 0) {
+      parseLine(carry, 0, carryLength);
+      carryLength = 0;
+    }
+    return TelegrafMetricBody.create(families);
+  }
+
+  private void append(byte[] data, int offset, int length) {
+    if (carryLength + length > carry.length) {
+      carry = Arrays.copyOf(carry, Math.max(carry.length * 2,
+        carryLength + length));
+    }
+    System.arraycopy(data, offset, carry, carryLength, length);
+    carryLength += length;
+  }
+
+  private void parseLine(byte[] line, int start, int end) {
+    if (end > start && line[end - 1] == '\r') {
+      end--;
+    }
+    if (start >= end || line[start] == '#') {
+      return;
+    }
+    var nameEnd = start;
+    while (nameEnd < end && line[nameEnd] != '{' && line[nameEnd] != ' ' &&
+      line[nameEnd] != '\t'
+    ) {
+      nameEnd++;
+    }
+    if (nameEnd == start) {
+      return;
+    }
+    var family = family(line, start, nameEnd);
+    if (family == null) {
+      return;
+    }
+    var position = nameEnd;
+    Map<String, String> labels = null;
+    if (position < end && line[position] == '{') {
+      labels = Maps.newHashMap();
+      position = parseLabels(line, position + 1, end, labels);
+      if (position < 0) {
+        return;
+      }
+    }
+    while (position < end && isBlank(line[position])) {
+      position++;
+    }
+    var valueEnd = position;
+    while (valueEnd < end && !isBlank(line[valueEnd])) {
+      valueEnd++;
+    }
+    if (valueEnd == position) {
+      return;
+    }
+    var value = parseValue(line, position, valueEnd);
+    if (Double.isNaN(value) && !isNaN(line, position, valueEnd)) {
+      return;
+    }
+    family.add(labels, value);
+  }
+
+  /**
+   * Samples of a family are adjacent, so the family is only looked up when
+   * the name differs from the one of the previous sample
+   * @return The family or null if it is not wanted
+   */
+  private TelegrafMetricBody.Family family(byte[] line, int start, int end) {
+    if (Arrays.equals(currentName, 0, currentName.length, line, start, end)) {
+      return currentFamily;
+    }
+    currentName = Arrays.copyOfRange(line, start, end);
+    var name = new String(currentName, StandardCharsets.US_ASCII);
+    if (!wantedFamilies.isEmpty() && !wantedFamilies.contains(name)) {
+      currentFamily = null;
+      return null;
+    }
+    currentFamily = families.computeIfAbsent(name,
+      key -> TelegrafMetricBody.Family.create());
+    return currentFamily;
+  }
+
+  /**
+   * Parses the labels of a sample
+   * @return The position after the closing brace or -1 if the labels are
+   * malformed
+   */
+  private int parseLabels(
+    byte[] line, int position, int end, Map<String, String> labels
+  ) {
+    while (position < end) {
+      while (position < end &&
+        (line[position] == ',' || line[position] == ' ')
+      ) {
+        position++;
+      }
+      if (position < end && line[position] == '}') {
+        return position + 1;
+      }
+      var keyStart = position;
+      while (position < end && line[position] != '=') {
+        position++;
+      }
+      if (position + 1 >= end || line[position + 1] != '"') {
+        return -1;
+      }
+      var key = new String(line, keyStart, position - keyStart,
+        StandardCharsets.US_ASCII).trim();
+      position += 2;
+      var valueStart = position;
+      var escaped = false;
+      while (position < end && line[position] != '"') {
+        if (line[position] == '\\') {
+          escaped = true;
+          position++;
+        }
+        position++;
+      }
+      if (position >= end) {
+        return -1;
+      }
+      var value = escaped ? unescape(line, valueStart, position) :
+        new String(line, valueStart, position - valueStart,
+          StandardCharsets.UTF_8);
+      labels.put(key, value);
+      position++;
+    }
+    return -1;
+  }
+
+  private String unescape(byte[] line, int start, int end) {
+    var raw = new String(line, start, end - start, StandardCharsets.UTF_8);
+    var builder = new StringBuilder(raw.length());
+    for (var i = 0; i < raw.length(); i++) {
+      var character = raw.charAt(i);
+      if (character == '\\' && i + 1 < raw.length()) {
+        var next = raw.charAt(++i);
+        builder.append(next == 'n' ? '\n' : next);
+      } else {
+        builder.append(character);
+      }
+    }
+    return builder.toString();
+  }
+
+  private double parseValue(byte[] line, int start, int end) {
+    var token = new String(line, start, end - start,
+      StandardCharsets.US_ASCII);
+    return switch (token) {
+      case "+Inf", "Inf" -> Double.POSITIVE_INFINITY;
+      case "-Inf" -> Double.NEGATIVE_INFINITY;
+      case "NaN" -> Double.NaN;
+      default -> {
+        try {
+          yield Double.parseDouble(token);
+        } catch (NumberFormatException exception) {
+          yield Double.NaN;
+        }
+      }
+    };
+  }
+
+  private boolean isBlank(byte character) {
+    return character == ' ' || character == '\t';
+  }
+
+  private boolean isNaN(byte[] line, int start, int end) {
+    return end - start == 3 && line[start] == 'N' && line[start + 1] == 'a' &&
+      line[start + 2] == 'N';
+  }
+}
@@ -0,0 +1,111 @@
+package io.poddeck.agent.telegraf;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Feeds the body of a metrics response into the parser as it arrives, so
+ * the body is never held in memory as a whole. One buffer list is requested
+ * at a time
+ */
+final class TelegrafMetricSubscriber
+  implements HttpResponse.BodySubscriber<TelegrafMetricBody> {
+  private final TelegrafMetricParser parser;
+  private final TelegrafGzipDecoder decoder;
+  private final CompletableFuture<TelegrafMetricBody> body =
+    new CompletableFuture<>();
+  private byte[] scratch = new byte[0];
+  private Flow.Subscription subscription;
+
+  private TelegrafMetricSubscriber(
+    TelegrafMetricParser parser, TelegrafGzipDecoder decoder
+  ) {
+    this.parser = parser;
+    this.decoder = decoder;
+  }
+
+  /**
+   * @param parser The parser that receives the body
+   * @param compressed Whether the body is gzip encoded
+   * @return The subscriber
+   */
+  static TelegrafMetricSubscriber create(
+    TelegrafMetricParser parser, boolean compressed
+  ) {
+    return new TelegrafMetricSubscriber(parser,
+      compressed ? TelegrafGzipDecoder.create(parser) : null);
+  }
+
+  @Override
+  public CompletionStage<TelegrafMetricBody> getBody() {
+    return body;
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    this.subscription = subscription;
+    subscription.request(1);
+  }
+
+  @Override
+  public void onNext(List<ByteBuffer> buffers) {
+    if (body.isDone()) {
+      return;
+    }
+    try {
+      for (var buffer : buffers) {
+        feed(buffer);
+      }
+      subscription.request(1);
+    } catch (Exception exception) {
+      subscription.cancel();
+      fail(exception);
+    }
+  }
+
+  private void feed(ByteBuffer buffer) throws Exception {
+    var length = buffer.remaining();
+    if (buffer.hasArray()) {
+      feed(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+      buffer.position(buffer.limit());
+      return;
+    }
+    if (scratch.length < length) {
+      scratch = new byte[length];
+    }
+    buffer.get(scratch, 0, length);
+    feed(scratch, 0, length);
+  }
+
+  private void feed(byte[] data, int offset, int length) throws Exception {
+    if (decoder != null) {
+      decoder.feed(data, offset, length);
+    } else {
+      parser.feed(data, offset, length);
+    }
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    fail(throwable);
+  }
+
+  @Override
+  public void onComplete() {
+    if (decoder != null) {
+      decoder.finish();
+    }
+    body.complete(parser.finish());
+  }
+
+  private void fail(Throwable throwable) {
+    if (decoder != null) {
+      decoder.finish();
+    }
+    body.completeExceptionally(throwable);
+  }
+}
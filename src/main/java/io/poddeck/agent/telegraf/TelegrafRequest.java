@@ -28,13 +28,35 @@ public final class TelegrafRequest {
     return send(url, method, new JSONObject(body).toString());
   }
 
+  public <T> CompletableFuture<HttpResponse<T>> send(
+    String url, String method, HttpResponse.BodyHandler<T> bodyHandler
+  ) {
+    return send(url, method, Map.of(), bodyHandler);
+  }
+
+  public <T> CompletableFuture<HttpResponse<T>> send(
+    String url, String method, Map<String, String> headers,
+    HttpResponse.BodyHandler<T> bodyHandler
+  ) {
+    return send(url, method, "", headers, bodyHandler);
+  }
+
   private CompletableFuture<HttpResponse<String>> send(
     String url, String method, String body
+  ) {
+    return send(url, method, body, Map.of(),
+      HttpResponse.BodyHandlers.ofString());
+  }
+
+  private <T> CompletableFuture<HttpResponse<T>> send(
+    String url, String method, String body, Map<String, String> headers,
+    HttpResponse.BodyHandler<T> bodyHandler
   ) {
     var requestBuilder = HttpRequest.newBuilder()
       .uri(URI.create("http://" + telegrafHost + ":" + telegrafPort + url))
       .method(method, HttpRequest.BodyPublishers.ofString(body));
+    headers.forEach(requestBuilder::header);
     var httpRequest = requestBuilder.build();
-    return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString());
+    return httpClient.sendAsync(httpRequest, bodyHandler);
   }
 }